@@ -0,0 +1,23 @@
+package mate.academy.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Configuration;
+
+@EnableCaching
+@Configuration
+@RequiredArgsConstructor
+public class CacheConfig implements CachingConfigurer {
+    public static final String BOOKS_CACHE = "books";
+    public static final String USERS_CACHE = "users";
+    private final ObjectProvider<CacheManager> cacheManager;
+
+    @Override
+    public CacheManager cacheManager() {
+        return new TransactionAwareCacheManagerProxy(cacheManager.getObject());
+    }
+}
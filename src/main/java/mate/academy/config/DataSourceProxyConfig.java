@@ -0,0 +1,34 @@
+package mate.academy.config;
+
+import javax.sql.DataSource;
+import mate.academy.metrics.JdbcMetricsListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "jdbc.metrics.enabled", havingValue = "true",
+        matchIfMissing = true)
+public class DataSourceProxyConfig {
+    @Bean
+    public static BeanPostProcessor dataSourceProxyBeanPostProcessor(
+            ObjectProvider<JdbcMetricsListener> jdbcMetricsListener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource
+                        && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(jdbcMetricsListener.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,8 +1,13 @@
 package mate.academy.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
 import lombok.RequiredArgsConstructor;
 import mate.academy.exception.CustomAuthenticationFailureHandler;
+import mate.academy.security.AuthRateLimitFilter;
+import mate.academy.security.BoundedPasswordEncoder;
 import mate.academy.security.JwtAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -26,10 +31,17 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
     private final UserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final AuthRateLimitFilter authRateLimitFilter;
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${security.password.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${security.password.hashing-threads:2}") int hashingThreads,
+            @Value("${security.password.queue-capacity:32}") int queueCapacity,
+            @Value("${security.password.timeout:2s}") Duration timeout) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength),
+                hashingThreads, queueCapacity, timeout, meterRegistry);
     }
 
     @Bean
@@ -39,6 +51,8 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(
                         auth -> auth
+                                .requestMatchers(JwtAuthenticationFilter.LOGOUT_PATH)
+                                .authenticated()
                                 .requestMatchers("/api/auth/**",
                                         "/swagger-ui/**",
                                         "/v3/api-docs/**",
@@ -50,6 +64,8 @@ public class SecurityConfig {
                 .httpBasic(Customizer.withDefaults())
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(authRateLimitFilter,
+                        UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(jwtAuthenticationFilter,
                         UsernamePasswordAuthenticationFilter.class)
                 .headers(headers -> headers.frameOptions(
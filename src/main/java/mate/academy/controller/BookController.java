@@ -3,14 +3,24 @@ package mate.academy.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.InputStream;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import mate.academy.dto.book.BookCursorPageDto;
 import mate.academy.dto.book.BookDto;
+import mate.academy.dto.book.BookFileFormat;
+import mate.academy.dto.book.BookImportResultDto;
 import mate.academy.dto.book.BookSearchParameters;
 import mate.academy.dto.book.CreateBookRequestDto;
+import mate.academy.service.BookExportService;
+import mate.academy.service.BookImportService;
 import mate.academy.service.BookService;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,8 +29,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "Book management", description = "Endpoints for managing books")
 @RequiredArgsConstructor
@@ -28,6 +40,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping(value = "/api/books")
 public class BookController {
     private final BookService bookService;
+    private final BookExportService bookExportService;
+    private final BookImportService bookImportService;
 
     @GetMapping
     @Operation(summary = "Get all books", description = "Get all books")
@@ -35,6 +49,30 @@ public class BookController {
         return bookService.findAll(pageable);
     }
 
+    @GetMapping(params = "after")
+    @Operation(summary = "Get all books by cursor",
+            description = "Get page of books after cursor. Pass empty cursor to get first page "
+                    + "and nextCursor from response to get the following one")
+    public BookCursorPageDto getAllAfter(@RequestParam("after") String cursor,
+                                         Pageable pageable) {
+        return bookService.findAllAfter(cursor, pageable);
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(summary = "Export all books",
+            description = "Stream all books as NDJSON or CSV file")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "NDJSON") BookFileFormat format) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("books." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(outputStream -> bookExportService.export(format, outputStream));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get book by id", description = "Get book by id")
     public BookDto getBookById(@PathVariable Long id) {
@@ -49,6 +87,17 @@ public class BookController {
         return bookService.save(bookDto);
     }
 
+    @PostMapping("/import")
+    @Operation(summary = "Import books",
+            description = "Create or update books by isbn from NDJSON or CSV body. "
+                    + "Invalid rows are rejected without aborting the import")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public BookImportResultDto importBooks(
+            @RequestParam(defaultValue = "NDJSON") BookFileFormat format,
+            InputStream inputStream) {
+        return bookImportService.importBooks(format, inputStream);
+    }
+
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete book by id", description = "Delete book by id")
@@ -64,6 +113,14 @@ public class BookController {
         return bookService.search(searchParameters);
     }
 
+    @GetMapping(value = "/search", params = "q")
+    @Operation(summary = "Full-text search books",
+            description = "Search books by words from title, author, description or isbn. "
+                    + "Results are ranked by relevance")
+    public List<BookDto> fullTextSearch(@RequestParam("q") String query, Pageable pageable) {
+        return bookService.fullTextSearch(query, pageable);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('ADMIN')")
     @Operation(summary = "Update book by id", description = "Update book by id")
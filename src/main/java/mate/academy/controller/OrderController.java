@@ -9,7 +9,9 @@ import mate.academy.dto.order.OrderResponseDto;
 import mate.academy.dto.order.OrderStatusDto;
 import mate.academy.dto.order.ShippingAddressRequestDto;
 import mate.academy.dto.orderitem.OrderItemResponseDto;
+import mate.academy.service.IdempotencyService;
 import mate.academy.service.OrderService;
+import mate.academy.service.ShoppingCartService;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,6 +21,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
@@ -28,15 +31,25 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping(value = "/api/orders")
 public class OrderController {
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final ShoppingCartService shoppingCartService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.OK)
-    @Operation(summary = "Create a new order", description = "Create a new order")
+    @Operation(summary = "Create a new order",
+            description = "Create a new order. Requests repeated with the same "
+                    + "Idempotency-Key header return the first result")
     @PreAuthorize("hasAuthority('USER')")
-    void createOrder(Authentication authentication,
-                     @RequestBody @Valid ShippingAddressRequestDto shippingAddress) {
-        orderService.placeOrder(authentication, shippingAddress);
+    OrderResponseDto createOrder(Authentication authentication,
+                                 @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+                                 String idempotencyKey,
+                                 @RequestBody @Valid ShippingAddressRequestDto shippingAddress) {
+        shoppingCartService.flushCart(authentication);
+        return idempotencyService.execute(authentication.getName(), idempotencyKey,
+                shippingAddress, OrderResponseDto.class,
+                () -> orderService.placeOrder(authentication, shippingAddress));
     }
 
     @GetMapping
@@ -4,10 +4,11 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import mate.academy.dto.cart.CartBatchRequestDto;
+import mate.academy.dto.cart.CartSummaryDto;
 import mate.academy.dto.cart.ShoppingCartDto;
 import mate.academy.dto.cartitem.CartItemQuantityRequestDto;
 import mate.academy.dto.cartitem.CartItemRequestDto;
-import mate.academy.repository.cartitem.CartItemRepository;
 import mate.academy.service.ShoppingCartService;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -28,7 +29,6 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping(value = "/api/cart")
 public class ShoppingCartController {
     private final ShoppingCartService shoppingCartService;
-    private final CartItemRepository cartItemRepository;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -41,6 +41,17 @@ public class ShoppingCartController {
         shoppingCartService.addItemToCart(authentication, cartItemRequestDto);
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('USER')")
+    @Operation(summary = "Change several cart items at once",
+            description = "Adds books, then sets new qty of cart items, then deletes cart items "
+                    + "in one transaction and returns the cart")
+    public ShoppingCartDto updateCart(Authentication authentication,
+                                      @RequestBody @Valid
+                                      CartBatchRequestDto cartBatchRequestDto) {
+        return shoppingCartService.updateCart(authentication, cartBatchRequestDto);
+    }
+
     @GetMapping
     @PreAuthorize("hasAuthority('USER')")
     @Operation(summary = "Get all books from cart", description = "Get all books from cart")
@@ -48,6 +59,14 @@ public class ShoppingCartController {
         return shoppingCartService.getAllCartItems(authentication);
     }
 
+    @GetMapping("/summary")
+    @PreAuthorize("hasAuthority('USER')")
+    @Operation(summary = "Get cart totals",
+            description = "Get item count, total qty and subtotal of cart without its items")
+    public CartSummaryDto getSummary(Authentication authentication) {
+        return shoppingCartService.getSummary(authentication);
+    }
+
     @PutMapping("/books/{id}")
     @PreAuthorize("hasAuthority('USER')")
     @ResponseStatus(HttpStatus.OK)
@@ -64,6 +83,6 @@ public class ShoppingCartController {
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Delete cart item", description = "Delete cart item")
     public void removeCartItemByBookId(Authentication authentication, @PathVariable Long id) {
-        cartItemRepository.deleteById(id);
+        shoppingCartService.removeCartItem(authentication, id);
     }
 }
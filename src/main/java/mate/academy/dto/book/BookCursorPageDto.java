@@ -0,0 +1,12 @@
+package mate.academy.dto.book;
+
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class BookCursorPageDto {
+    private List<BookDto> books;
+    private String nextCursor;
+}
@@ -0,0 +1,15 @@
+package mate.academy.dto.book;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class BookImportChunkDto {
+    private int chunk;
+    private long firstRow;
+    private long lastRow;
+    private int imported;
+    private int rejected;
+    private long durationMillis;
+}
@@ -0,0 +1,15 @@
+package mate.academy.dto.book;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class BookImportResultDto {
+    private long imported;
+    private long rejected;
+    private List<BookImportChunkDto> chunks = new ArrayList<>();
+    private List<RejectedBookRowDto> rejectedRows = new ArrayList<>();
+}
@@ -0,0 +1,84 @@
+package mate.academy.dto.book;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import mate.academy.exception.InvalidCursorException;
+import mate.academy.model.Book;
+import org.springframework.data.domain.Sort;
+
+public record BookPageCursor(SortKey sortKey, String value, Long id) {
+    private static final String SEPARATOR = ":";
+
+    public static BookPageCursor of(SortKey sortKey, Book lastBook) {
+        String value = switch (sortKey) {
+            case ID -> "";
+            case TITLE -> lastBook.getTitle();
+            case PRICE -> lastBook.getPrice().toPlainString();
+        };
+        return new BookPageCursor(sortKey, value, lastBook.getId());
+    }
+
+    public static BookPageCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token),
+                    StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, 3);
+            if (parts.length != 3) {
+                throw new InvalidCursorException("Invalid page cursor " + token);
+            }
+            return new BookPageCursor(SortKey.valueOf(parts[0]), parts[2],
+                    Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid page cursor " + token);
+        }
+    }
+
+    public BigDecimal priceValue() {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Invalid price in page cursor " + value);
+        }
+    }
+
+    public String encode() {
+        String raw = sortKey.name() + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public enum SortKey {
+        ID("id"),
+        TITLE("title"),
+        PRICE("price");
+
+        private final String property;
+
+        SortKey(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public static SortKey from(Sort sort) {
+            Sort.Order order = sort.stream().findFirst().orElse(null);
+            if (order == null) {
+                return ID;
+            }
+            if (order.isDescending()) {
+                throw new InvalidCursorException("Cursor pagination supports only "
+                        + "ascending sort");
+            }
+            for (SortKey sortKey : values()) {
+                if (sortKey.property.equals(order.getProperty())) {
+                    return sortKey;
+                }
+            }
+            throw new InvalidCursorException("Cursor pagination doesn't support sort by "
+                    + order.getProperty());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package mate.academy.dto.book;
+
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class RejectedBookRowDto {
+    private long row;
+    private String isbn;
+    private List<String> errors;
+}
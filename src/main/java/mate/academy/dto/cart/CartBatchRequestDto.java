@@ -0,0 +1,29 @@
+package mate.academy.dto.cart;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import mate.academy.dto.cartitem.CartItemQuantityRequestDto;
+import mate.academy.dto.cartitem.CartItemRequestDto;
+
+@Data
+@Accessors(chain = true)
+public class CartBatchRequestDto {
+    @NotNull
+    @Size(max = 100)
+    private List<@NotNull @Valid CartItemRequestDto> add = new ArrayList<>();
+    @NotNull
+    @Size(max = 100)
+    private Map<Long, @NotNull @Valid CartItemQuantityRequestDto> update = new LinkedHashMap<>();
+    @NotNull
+    @Size(max = 100)
+    private Set<@NotNull Long> remove = new LinkedHashSet<>();
+}
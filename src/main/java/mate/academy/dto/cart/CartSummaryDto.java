@@ -0,0 +1,11 @@
+package mate.academy.dto.cart;
+
+import java.math.BigDecimal;
+
+public record CartSummaryDto(Long id, Long userId, int itemCount, int totalQuantity,
+                             BigDecimal subtotal) {
+
+    public static CartSummaryDto empty(Long userId) {
+        return new CartSummaryDto(null, userId, 0, 0, BigDecimal.ZERO);
+    }
+}
@@ -1,5 +1,6 @@
 package mate.academy.dto.cart;
 
+import java.math.BigDecimal;
 import java.util.Set;
 import lombok.Data;
 import mate.academy.dto.cartitem.CartItemResponseDto;
@@ -8,5 +9,8 @@ import mate.academy.dto.cartitem.CartItemResponseDto;
 public class ShoppingCartDto {
     private Long id;
     private Long userId;
+    private int itemCount;
+    private int totalQuantity;
+    private BigDecimal subtotal;
     private Set<CartItemResponseDto> cartItems;
 }
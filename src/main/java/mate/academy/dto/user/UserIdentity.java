@@ -0,0 +1,15 @@
+package mate.academy.dto.user;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import mate.academy.model.User;
+import org.springframework.security.core.GrantedAuthority;
+
+public record UserIdentity(Long id, String email, Set<String> roles) {
+
+    public static UserIdentity of(User user) {
+        return new UserIdentity(user.getId(), user.getEmail(), user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toUnmodifiableSet()));
+    }
+}
@@ -0,0 +1,6 @@
+package mate.academy.event;
+
+import java.util.Collection;
+
+public record BooksChangedEvent(Collection<Long> bookIds, boolean pricesChanged) {
+}
@@ -0,0 +1,54 @@
+package mate.academy.lib;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CsvRecordReader {
+    private static final int END_OF_STREAM = -1;
+
+    private final Reader reader;
+
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    public List<String> next() throws IOException {
+        int current = reader.read();
+        if (current == END_OF_STREAM) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (current == END_OF_STREAM) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (current == '"') {
+                    int next = reader.read();
+                    if (next != '"') {
+                        quoted = false;
+                        current = next;
+                        continue;
+                    }
+                }
+                field.append((char) current);
+            } else if (current == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (current == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (current == '\n' || current == END_OF_STREAM) {
+                fields.add(field.toString());
+                return fields;
+            } else if (current != '\r') {
+                field.append((char) current);
+            }
+            current = reader.read();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package mate.academy.lib;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class SingleFlight {
+    private static final String CALLS_METRIC = "singleflight.calls";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<FlightKey, CompletableFuture<Object>> inFlight =
+            new ConcurrentHashMap<>();
+
+    public <T> T execute(String name, Object key, Supplier<T> loader) {
+        FlightKey flightKey = new FlightKey(name, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            meterRegistry.counter(CALLS_METRIC, "name", name, "role", "coalesced").increment();
+            return await(existing);
+        }
+        meterRegistry.counter(CALLS_METRIC, "name", name, "role", "leader").increment();
+        try {
+            T result = loader.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    public void forget(String name, Object key) {
+        inFlight.remove(new FlightKey(name, key));
+    }
+
+    public void forgetAll(String name) {
+        inFlight.keySet().removeIf(flightKey -> flightKey.name().equals(name));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T await(CompletableFuture<Object> flight) {
+        try {
+            return (T) flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record FlightKey(String name, Object key) {
+    }
+}
@@ -0,0 +1,33 @@
+package mate.academy.lib;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TokenBucket {
+    private final long emissionIntervalNanos;
+    private final long refillPeriodNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    public TokenBucket(int capacity, Duration refillPeriod, long nowNanos) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Bucket capacity must be positive");
+        }
+        refillPeriodNanos = refillPeriod.toNanos();
+        emissionIntervalNanos = refillPeriodNanos / capacity;
+        theoreticalArrivalTime = new AtomicLong(nowNanos);
+    }
+
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrivalTime.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long allowedAt = next - refillPeriodNanos;
+            if (nowNanos < allowedAt) {
+                return allowedAt - nowNanos;
+            }
+            if (theoreticalArrivalTime.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
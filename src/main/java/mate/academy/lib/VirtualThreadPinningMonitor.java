@@ -0,0 +1,54 @@
+package mate.academy.lib;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.List;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.beans.factory.DisposableBean;
+
+public class VirtualThreadPinningMonitor implements DisposableBean {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String PINNED_METRIC = "jvm.threads.virtual.pinned";
+    private static final List<String> PLATFORM_PACKAGES = List.of("java.", "javax.", "jdk.",
+            "sun.", "com.sun.");
+
+    private final MeterRegistry meterRegistry;
+    private final RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT)
+                .withThreshold(threshold)
+                .withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::record);
+        recordingStream.startAsync();
+    }
+
+    @Override
+    public void destroy() {
+        recordingStream.close();
+    }
+
+    private void record(RecordedEvent event) {
+        Timer.builder(PINNED_METRIC)
+                .tag("frame", pinningFrame(event))
+                .register(meterRegistry)
+                .record(event.getDuration());
+    }
+
+    private String pinningFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+        return event.getStackTrace().getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(frame -> frame.getMethod().getType().getName())
+                .filter(type -> PLATFORM_PACKAGES.stream().noneMatch(type::startsWith))
+                .findFirst()
+                .orElse("unknown");
+    }
+}
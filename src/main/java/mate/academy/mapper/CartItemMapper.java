@@ -4,6 +4,7 @@ import mate.academy.config.MapperConfig;
 import mate.academy.dto.cartitem.CartItemRequestDto;
 import mate.academy.dto.cartitem.CartItemResponseDto;
 import mate.academy.model.CartItem;
+import mate.academy.repository.cart.CartItemView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.springframework.stereotype.Component;
@@ -21,4 +22,6 @@ public interface CartItemMapper {
     @Mapping(target = "bookId", source = "book.id")
     @Mapping(target = "bookTitle", source = "book.title")
     CartItemResponseDto toResponseDto(CartItem cartItem);
+
+    CartItemResponseDto toResponseDto(CartItemView cartItemView);
 }
@@ -0,0 +1,31 @@
+package mate.academy.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Component
+public class ControllerMethodObservationConvention
+        extends DefaultServerRequestObservationConvention {
+    private static final String HANDLER_KEY = "handler";
+    private static final String NONE = "none";
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(handler(context));
+    }
+
+    private KeyValue handler(ServerRequestObservationContext context) {
+        Object handler = context.getCarrier()
+                .getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return KeyValue.of(HANDLER_KEY, handlerMethod.getBeanType().getSimpleName() + "#"
+                    + handlerMethod.getMethod().getName());
+        }
+        return KeyValue.of(HANDLER_KEY, NONE);
+    }
+}
@@ -0,0 +1,76 @@
+package mate.academy.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class JdbcMetricsListener implements QueryExecutionListener {
+    private static final String STATEMENTS_METRIC = "jdbc.statements";
+    private static final String SLOW_STATEMENTS_METRIC = "jdbc.statements.slow";
+    private static final List<String> STATEMENT_TYPES = List.of("select", "insert", "update",
+            "delete");
+
+    private final MeterRegistry meterRegistry;
+    private final Counter slowStatements;
+    private final Duration slowQueryThreshold;
+    private final double slowQuerySampleRate;
+
+    public JdbcMetricsListener(
+            MeterRegistry meterRegistry,
+            @Value("${jdbc.slow-query.threshold:200ms}") Duration slowQueryThreshold,
+            @Value("${jdbc.slow-query.sample-rate:1.0}") double slowQuerySampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueryThreshold = slowQueryThreshold;
+        this.slowQuerySampleRate = slowQuerySampleRate;
+        slowStatements = meterRegistry.counter(SLOW_STATEMENTS_METRIC);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMillis = execInfo.getElapsedTime();
+        for (QueryInfo queryInfo : queryInfoList) {
+            Timer.builder(STATEMENTS_METRIC)
+                    .tag("type", type(queryInfo.getQuery()))
+                    .tag("batch", String.valueOf(execInfo.isBatch()))
+                    .register(meterRegistry)
+                    .record(elapsedMillis / queryInfoList.size(), TimeUnit.MILLISECONDS);
+        }
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.record(queryInfoList.size(), elapsedMillis);
+        }
+        if (elapsedMillis >= slowQueryThreshold.toMillis()) {
+            slowStatements.increment();
+            if (ThreadLocalRandom.current().nextDouble() < slowQuerySampleRate) {
+                log.warn("Slow statement took {} ms{}: {}", elapsedMillis,
+                        execInfo.isBatch() ? " (batch of " + execInfo.getBatchSize() + ")" : "",
+                        queryInfoList.get(0).getQuery());
+            }
+        }
+    }
+
+    private String type(String sql) {
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return STATEMENT_TYPES.stream()
+                .filter(statement::startsWith)
+                .findFirst()
+                .orElse("other");
+    }
+}
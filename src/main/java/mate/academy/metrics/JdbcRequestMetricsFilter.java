@@ -0,0 +1,58 @@
+package mate.academy.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Component
+@RequiredArgsConstructor
+public class JdbcRequestMetricsFilter extends OncePerRequestFilter {
+    private static final String STATEMENTS_METRIC = "http.server.requests.jdbc.statements";
+    private static final String TIME_METRIC = "http.server.requests.jdbc.time";
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestQueryStats.clear();
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestQueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+        DistributionSummary.builder(STATEMENTS_METRIC)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder(TIME_METRIC)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getElapsedMillis(), TimeUnit.MILLISECONDS);
+    }
+}
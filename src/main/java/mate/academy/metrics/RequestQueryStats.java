@@ -0,0 +1,47 @@
+package mate.academy.metrics;
+
+public class RequestQueryStats {
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+    private final RequestQueryStats parent;
+    private int statements;
+    private long elapsedMillis;
+
+    private RequestQueryStats(RequestQueryStats parent) {
+        this.parent = parent;
+    }
+
+    public static RequestQueryStats start() {
+        RequestQueryStats stats = new RequestQueryStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats == null || stats.parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(stats.parent);
+        }
+    }
+
+    public void record(int count, long millis) {
+        statements += count;
+        elapsedMillis += millis;
+        if (parent != null) {
+            parent.record(count, millis);
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
@@ -9,11 +9,14 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.experimental.Accessors;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
@@ -26,7 +29,11 @@ import org.hibernate.annotations.Where;
 @Accessors(chain = true)
 public class Book {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "books_id")
+    @TableGenerator(name = "books_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN, pkColumnValue = "books",
+            valueColumnName = IdGenerators.VALUE_COLUMN,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     @NotNull(message = "Book title cannot be null")
     private String title;
@@ -41,6 +48,8 @@ public class Book {
     private String coverImage;
     @Column(nullable = false)
     private boolean isDeleted = false;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @ManyToMany
     @JoinTable(name = "books_categories",
             joinColumns = @JoinColumn(name = "book_id"),
@@ -8,7 +8,9 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -24,7 +26,11 @@ import org.hibernate.annotations.Where;
 @Accessors(chain = true)
 public class CartItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "cart_items_id")
+    @TableGenerator(name = "cart_items_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN, pkColumnValue = "cart_items",
+            valueColumnName = IdGenerators.VALUE_COLUMN,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     @ManyToOne
     @JoinColumn(name = "shopping_cart_id", nullable = false)
@@ -36,6 +42,8 @@ public class CartItem {
     private Book book;
     @NotNull
     private int quantity;
+    @Column(nullable = false)
+    private BigDecimal price;
     @Column(name = "is_deleted")
     private boolean isDeleted;
 }
@@ -6,6 +6,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.experimental.Accessors;
@@ -20,7 +21,11 @@ import org.hibernate.annotations.Where;
 @Accessors(chain = true)
 public class Category {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "categories_id")
+    @TableGenerator(name = "categories_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN, pkColumnValue = "categories",
+            valueColumnName = IdGenerators.VALUE_COLUMN,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     @NotNull(message = "Category name cannot be null")
     private String name;
@@ -0,0 +1,11 @@
+package mate.academy.model;
+
+public final class IdGenerators {
+    public static final String TABLE = "id_generators";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {
+    }
+}
@@ -0,0 +1,48 @@
+package mate.academy.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Entity
+@Data
+@Table(name = "idempotency_keys")
+@Accessors(chain = true)
+public class IdempotencyRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "idempotency_keys_id")
+    @TableGenerator(name = "idempotency_keys_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN, pkColumnValue = "idempotency_keys",
+            valueColumnName = IdGenerators.VALUE_COLUMN,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
+    private Long id;
+    @Column(nullable = false)
+    private String userEmail;
+    @Column(nullable = false)
+    private String idempotencyKey;
+    @Column(nullable = false)
+    private String requestHash;
+    @Enumerated(value = EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    public enum Status {
+        IN_PROGRESS,
+        COMPLETED
+    }
+}
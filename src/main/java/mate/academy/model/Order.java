@@ -12,6 +12,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -30,7 +31,11 @@ import org.hibernate.annotations.Where;
 @Accessors(chain = true)
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "orders_id")
+    @TableGenerator(name = "orders_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN, pkColumnValue = "orders",
+            valueColumnName = IdGenerators.VALUE_COLUMN,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
@@ -44,7 +49,7 @@ public class Order {
     private LocalDateTime orderDate;
     @NotNull
     private String shippingAddress;
-    @OneToMany(mappedBy = "order", cascade = CascadeType.REMOVE)
+    @OneToMany(mappedBy = "order", cascade = {CascadeType.PERSIST, CascadeType.REMOVE})
     private Set<OrderItem> orderItems = new HashSet<>();
     @Column(nullable = false)
     private boolean isDeleted = false;
@@ -8,6 +8,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
 import lombok.Data;
@@ -23,12 +25,22 @@ import org.hibernate.annotations.Where;
 @Accessors(chain = true)
 public class ShoppingCart {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "shopping_carts_id")
+    @TableGenerator(name = "shopping_carts_id", table = IdGenerators.TABLE,
+            pkColumnName = IdGenerators.NAME_COLUMN, pkColumnValue = "shopping_carts",
+            valueColumnName = IdGenerators.VALUE_COLUMN,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     @OneToOne
     private User user;
     @OneToMany(mappedBy = "shoppingCart")
     private Set<CartItem> cartItems = new HashSet<>();
+    @Column(insertable = false, updatable = false)
+    private int itemCount;
+    @Column(insertable = false, updatable = false)
+    private int totalQuantity;
+    @Column(insertable = false, updatable = false)
+    private BigDecimal subtotal = BigDecimal.ZERO;
     @Column(nullable = false)
     private boolean isDeleted = false;
 }
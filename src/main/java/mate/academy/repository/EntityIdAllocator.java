@@ -0,0 +1,34 @@
+package mate.academy.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class EntityIdAllocator {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public List<Long> allocate(Class<?> entityType, int count) {
+        SessionFactoryImplementor sessionFactory =
+                entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        IdentifierGenerator generator = (IdentifierGenerator) sessionFactory
+                .getMappingMetamodel()
+                .getEntityDescriptor(entityType)
+                .getGenerator();
+        List<Long> ids = new ArrayList<>(count);
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            for (int i = 0; i < count; i++) {
+                ids.add((Long) generator.generate((SharedSessionContractImplementor) session,
+                        null));
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,37 @@
+package mate.academy.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+public final class TwoPhasePageLoader {
+    private TwoPhasePageLoader() {
+    }
+
+    public static <T> Page<T> load(Page<Long> idPage,
+                                   Function<Collection<Long>, List<T>> fetcher,
+                                   Function<T, Long> idExtractor) {
+        List<T> content = loadInOrder(idPage.getContent(), fetcher, idExtractor);
+        return new PageImpl<>(content, idPage.getPageable(), idPage.getTotalElements());
+    }
+
+    public static <T> List<T> loadInOrder(List<Long> ids,
+                                          Function<Collection<Long>, List<T>> fetcher,
+                                          Function<T, Long> idExtractor) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, T> entitiesById = fetcher.apply(ids).stream()
+                .collect(Collectors.toMap(idExtractor, Function.identity(),
+                        (first, duplicate) -> first));
+        return ids.stream()
+                .map(entitiesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -1,8 +1,11 @@
 package mate.academy.repository.book;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import mate.academy.model.Book;
+import mate.academy.repository.TwoPhasePageLoader;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -17,12 +20,50 @@ public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificat
     @Query("SELECT b FROM Book b JOIN b.categories c WHERE c.id=:categoryId")
     List<Book> findAllByCategoryId(@Param("categoryId") Long categoryId);
 
-    @EntityGraph(attributePaths = "categories")
-    Page<Book> findAll(Pageable pageable);
+    @Override
+    default Page<Book> findAll(Pageable pageable) {
+        return TwoPhasePageLoader.load(findPageIds(pageable),
+                this::findAllWithCategoriesByIdIn, Book::getId);
+    }
 
     @EntityGraph(attributePaths = "categories")
     List<Book> findAll(Specification<Book> spec);
 
     @EntityGraph(attributePaths = "categories")
     Optional<Book> findById(Long id);
+
+    @EntityGraph(attributePaths = "categories")
+    @Query("SELECT b FROM Book b")
+    List<Book> findAllWithCategories();
+
+    @Query("SELECT DISTINCT b FROM Book b LEFT JOIN FETCH b.categories WHERE b.id IN :ids")
+    List<Book> findAllWithCategoriesByIdIn(@Param("ids") Collection<Long> ids);
+
+    default List<Book> findAllWithCategoriesInOrder(List<Long> ids) {
+        return TwoPhasePageLoader.loadInOrder(ids, this::findAllWithCategoriesByIdIn,
+                Book::getId);
+    }
+
+    @Query("SELECT b.id AS id, b.title AS title, b.price AS price FROM Book b "
+            + "WHERE b.id IN :ids")
+    List<BookSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT b.id FROM Book b", countQuery = "SELECT COUNT(b) FROM Book b")
+    Page<Long> findPageIds(Pageable pageable);
+
+    @Query("SELECT b.id FROM Book b")
+    List<Long> findFirstPageIds(Pageable pageable);
+
+    @Query("SELECT b.id FROM Book b WHERE b.id > :id ORDER BY b.id")
+    List<Long> findIdsAfterId(@Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT b.id FROM Book b WHERE b.title > :title "
+            + "OR (b.title = :title AND b.id > :id) ORDER BY b.title, b.id")
+    List<Long> findIdsAfterTitle(@Param("title") String title, @Param("id") Long id,
+                                 Pageable pageable);
+
+    @Query("SELECT b.id FROM Book b WHERE b.price > :price "
+            + "OR (b.price = :price AND b.id > :id) ORDER BY b.price, b.id")
+    List<Long> findIdsAfterPrice(@Param("price") BigDecimal price, @Param("id") Long id,
+                                 Pageable pageable);
 }
@@ -0,0 +1,12 @@
+package mate.academy.repository.book;
+
+import java.math.BigDecimal;
+
+public interface BookSummary {
+
+    Long getId();
+
+    String getTitle();
+
+    BigDecimal getPrice();
+}
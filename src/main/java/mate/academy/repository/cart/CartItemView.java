@@ -0,0 +1,8 @@
+package mate.academy.repository.cart;
+
+import java.math.BigDecimal;
+
+public record CartItemView(Long shoppingCartId, int itemCount, int totalQuantity,
+                           BigDecimal subtotal, Long id, Long bookId, String bookTitle,
+                           BigDecimal bookPrice, Integer quantity) {
+}
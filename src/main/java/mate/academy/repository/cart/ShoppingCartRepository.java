@@ -1,13 +1,95 @@
 package mate.academy.repository.cart;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import mate.academy.dto.cart.CartSummaryDto;
 import mate.academy.model.ShoppingCart;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface ShoppingCartRepository extends JpaRepository<ShoppingCart, Long> {
+    String REFRESH_TOTALS_SQL = "UPDATE shopping_carts s SET "
+            + "item_count = (SELECT COUNT(*) FROM cart_items c "
+            + "WHERE c.shopping_cart_id = s.id AND c.is_deleted = FALSE), "
+            + "total_quantity = (SELECT COALESCE(SUM(c.quantity), 0) FROM cart_items c "
+            + "WHERE c.shopping_cart_id = s.id AND c.is_deleted = FALSE), "
+            + "subtotal = (SELECT COALESCE(SUM(c.quantity * c.price), 0) FROM cart_items c "
+            + "WHERE c.shopping_cart_id = s.id AND c.is_deleted = FALSE) ";
+    String ADD_TO_TOTALS_SQL = "UPDATE shopping_carts s SET "
+            + "item_count = item_count + CASE WHEN EXISTS (SELECT 1 FROM cart_items c "
+            + "WHERE c.shopping_cart_id = s.id AND c.book_id = :bookId "
+            + "AND c.is_deleted = FALSE) THEN 0 ELSE 1 END, "
+            + "total_quantity = total_quantity + :quantity, "
+            + "subtotal = subtotal + :quantity * COALESCE((SELECT c.price FROM cart_items c "
+            + "WHERE c.shopping_cart_id = s.id AND c.book_id = :bookId "
+            + "AND c.is_deleted = FALSE), (SELECT b.price FROM books b "
+            + "WHERE b.id = :bookId AND b.is_deleted = FALSE)) "
+            + "WHERE s.is_deleted = FALSE AND EXISTS (SELECT 1 FROM books b "
+            + "WHERE b.id = :bookId AND b.is_deleted = FALSE) ";
+    String SET_QUANTITY_IN_TOTALS_SQL = "UPDATE shopping_carts s SET "
+            + "subtotal = subtotal + (SELECT (:quantity - c.quantity) * c.price "
+            + "FROM cart_items c WHERE c.id = :id), "
+            + "total_quantity = total_quantity + :quantity - (SELECT c.quantity "
+            + "FROM cart_items c WHERE c.id = :id) "
+            + "WHERE s.is_deleted = FALSE AND EXISTS (SELECT 1 FROM cart_items c "
+            + "WHERE c.id = :id AND c.shopping_cart_id = s.id AND c.is_deleted = FALSE) ";
+    String REMOVE_FROM_TOTALS_SQL = "UPDATE shopping_carts s SET "
+            + "item_count = item_count - 1, "
+            + "subtotal = subtotal - (SELECT c.quantity * c.price FROM cart_items c "
+            + "WHERE c.id = :id), "
+            + "total_quantity = total_quantity - (SELECT c.quantity FROM cart_items c "
+            + "WHERE c.id = :id) "
+            + "WHERE s.is_deleted = FALSE AND EXISTS (SELECT 1 FROM cart_items c "
+            + "WHERE c.id = :id AND c.shopping_cart_id = s.id AND c.is_deleted = FALSE) ";
 
-    @EntityGraph(attributePaths = "cartItems")
+    @EntityGraph(attributePaths = {"user", "cartItems", "cartItems.book"})
     Optional<ShoppingCart> findShoppingCartByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new mate.academy.repository.cart.CartItemView(s.id, s.itemCount, "
+            + "s.totalQuantity, s.subtotal, c.id, b.id, b.title, b.price, c.quantity) "
+            + "FROM ShoppingCart s LEFT JOIN s.cartItems c LEFT JOIN c.book b "
+            + "WHERE s.user.id = :userId ORDER BY c.id")
+    List<CartItemView> findCartItemViewsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new mate.academy.dto.cart.CartSummaryDto(s.id, s.user.id, s.itemCount, "
+            + "s.totalQuantity, s.subtotal) FROM ShoppingCart s WHERE s.user.id = :userId")
+    Optional<CartSummaryDto> findSummaryByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT s.id FROM ShoppingCart s WHERE s.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
+    @Query(value = "SELECT DISTINCT c.shopping_cart_id FROM cart_items c "
+            + "WHERE c.book_id IN :bookIds AND c.is_deleted = FALSE "
+            + "AND c.shopping_cart_id > :afterId ORDER BY c.shopping_cart_id LIMIT :limit",
+            nativeQuery = true)
+    List<Long> findIdsByBookIdIn(@Param("bookIds") Collection<Long> bookIds,
+                                 @Param("afterId") Long afterId,
+                                 @Param("limit") int limit);
+
+    @Query(value = "SELECT id FROM shopping_carts WHERE id IN :ids ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = REFRESH_TOTALS_SQL + "WHERE s.id IN :ids", nativeQuery = true)
+    int refreshTotalsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = ADD_TO_TOTALS_SQL + "AND s.user_id = :userId", nativeQuery = true)
+    int addToTotalsByUserId(@Param("userId") Long userId, @Param("bookId") Long bookId,
+                            @Param("quantity") int quantity);
+
+    @Modifying
+    @Query(value = SET_QUANTITY_IN_TOTALS_SQL + "AND s.user_id = :userId", nativeQuery = true)
+    int setQuantityInTotalsByUserId(@Param("userId") Long userId, @Param("id") Long cartItemId,
+                                    @Param("quantity") int quantity);
+
+    @Modifying
+    @Query(value = REMOVE_FROM_TOTALS_SQL + "AND s.user_id = :userId", nativeQuery = true)
+    int removeFromTotalsByUserId(@Param("userId") Long userId, @Param("id") Long cartItemId);
+
 }
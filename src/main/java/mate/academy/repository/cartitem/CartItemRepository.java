@@ -1,9 +1,53 @@
 package mate.academy.repository.cartitem;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import mate.academy.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     Optional<CartItem> findByIdAndShoppingCartId(Long id, Long shoppingCartId);
+
+    @Query("SELECT c.id FROM CartItem c WHERE c.shoppingCart.id = :shoppingCartId "
+            + "AND c.id IN :ids")
+    List<Long> findIdsByShoppingCartIdAndIdIn(@Param("shoppingCartId") Long shoppingCartId,
+                                              @Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT c.id AS id, c.book_id AS bookId FROM cart_items c "
+            + "WHERE c.shopping_cart_id = :shoppingCartId AND c.is_deleted = TRUE",
+            nativeQuery = true)
+    List<DeletedCartItem> findDeletedByShoppingCartId(
+            @Param("shoppingCartId") Long shoppingCartId);
+
+    @Modifying
+    @Query(value = "INSERT INTO cart_items "
+            + "(id, shopping_cart_id, book_id, quantity, price, is_deleted) "
+            + "SELECT :id, s.id, b.id, :quantity, b.price, FALSE FROM shopping_carts s "
+            + "JOIN books b ON b.id = :bookId AND b.is_deleted = FALSE "
+            + "WHERE s.user_id = :userId AND s.is_deleted = FALSE "
+            + "ON DUPLICATE KEY UPDATE cart_items.quantity = CASE WHEN cart_items.is_deleted "
+            + "THEN :quantity ELSE cart_items.quantity + :quantity END, "
+            + "cart_items.price = CASE WHEN cart_items.is_deleted THEN (SELECT b.price "
+            + "FROM books b WHERE b.id = :bookId) ELSE cart_items.price END, "
+            + "cart_items.is_deleted = FALSE", nativeQuery = true)
+    int upsertByUserId(@Param("id") Long id, @Param("userId") Long userId,
+                       @Param("bookId") Long bookId, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query(value = "UPDATE cart_items c SET price = COALESCE((SELECT b.price FROM books b "
+            + "WHERE b.id = c.book_id AND b.is_deleted = FALSE), 0) "
+            + "WHERE c.shopping_cart_id IN :shoppingCartIds AND c.book_id IN :bookIds "
+            + "AND c.is_deleted = FALSE", nativeQuery = true)
+    int refreshPricesByShoppingCartIdInAndBookIdIn(
+            @Param("shoppingCartIds") Collection<Long> shoppingCartIds,
+            @Param("bookIds") Collection<Long> bookIds);
+
+    @Modifying
+    @Query("UPDATE CartItem c SET c.isDeleted = TRUE WHERE c.id = :id AND c.shoppingCart.id IN "
+            + "(SELECT s.id FROM ShoppingCart s WHERE s.user.id = :userId)")
+    int deleteByIdAndShoppingCartUserId(@Param("id") Long id, @Param("userId") Long userId);
 }
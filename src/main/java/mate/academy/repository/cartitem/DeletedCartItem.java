@@ -0,0 +1,8 @@
+package mate.academy.repository.cartitem;
+
+public interface DeletedCartItem {
+
+    Long getId();
+
+    Long getBookId();
+}
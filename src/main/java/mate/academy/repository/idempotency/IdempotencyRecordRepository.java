@@ -0,0 +1,19 @@
+package mate.academy.repository.idempotency;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import mate.academy.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByUserEmailAndIdempotencyKey(String userEmail,
+                                                                 String idempotencyKey);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
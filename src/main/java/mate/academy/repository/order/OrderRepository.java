@@ -1,20 +1,35 @@
 package mate.academy.repository.order;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import mate.academy.model.Order;
+import mate.academy.repository.TwoPhasePageLoader;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-    @EntityGraph(attributePaths = "orderItems")
-    Page<Order> findAllByUserId(Long userId, Pageable pageable);
+    default Page<Order> findAllByUserId(Long userId, Pageable pageable) {
+        return TwoPhasePageLoader.load(findPageIdsByUserId(userId, pageable),
+                this::findAllWithOrderItemsByIdIn, Order::getId);
+    }
 
-    @EntityGraph(attributePaths = "orderItems")
+    @Query(value = "SELECT o.id FROM Order o WHERE o.user.id = :userId",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId")
+    Page<Long> findPageIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT DISTINCT o FROM Order o JOIN FETCH o.user LEFT JOIN FETCH o.orderItems oi"
+            + " LEFT JOIN FETCH oi.book WHERE o.id IN :ids")
+    List<Order> findAllWithOrderItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.book"})
     Optional<Order> findByUserIdAndId(Long userId, Long orderId);
 
-    @EntityGraph(attributePaths = {"orderItems", "user.roles"})
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.book", "user.roles"})
     Optional<Order> findById(Long orderId);
 }
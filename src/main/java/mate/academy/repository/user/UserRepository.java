@@ -1,12 +1,33 @@
 package mate.academy.repository.user;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import mate.academy.model.User;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     @EntityGraph(attributePaths = "roles")
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion, "
+            + "u.tokenRevokedAt AS tokenRevokedAt FROM User u "
+            + "WHERE u.tokenRevokedAt > :since")
+    List<UserTokenVersion> findTokenVersionsRevokedAfter(@Param("since") LocalDateTime since);
+
+    @Query("SELECT u.id AS id, u.tokenVersion AS tokenVersion, "
+            + "u.tokenRevokedAt AS tokenRevokedAt FROM User u "
+            + "WHERE u.email = :email")
+    Optional<UserTokenVersion> findTokenVersionByEmail(@Param("email") String email);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1, "
+            + "u.tokenRevokedAt = :revokedAt WHERE u.email = :email")
+    int incrementTokenVersion(@Param("email") String email,
+                              @Param("revokedAt") LocalDateTime revokedAt);
 }
@@ -0,0 +1,12 @@
+package mate.academy.repository.user;
+
+import java.time.LocalDateTime;
+
+public interface UserTokenVersion {
+
+    Long getId();
+
+    int getTokenVersion();
+
+    LocalDateTime getTokenRevokedAt();
+}
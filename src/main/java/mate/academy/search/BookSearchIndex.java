@@ -0,0 +1,171 @@
+package mate.academy.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import mate.academy.dto.book.BookDto;
+import mate.academy.mapper.BookMapper;
+import mate.academy.repository.book.BookRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@RequiredArgsConstructor
+public class BookSearchIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int AUTHOR_WEIGHT = 2;
+    private static final int TEXT_WEIGHT = 1;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, IndexedBook> documents = new HashMap<>();
+    private long totalLength;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<BookDto> books = bookRepository.findAllWithCategories().stream()
+                .map(bookMapper::toDto)
+                .toList();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+            books.forEach(this::addDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(BookDto book) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(book.getId());
+            addDocument(book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<BookDto> search(String query, long offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            int documentCount = documents.size();
+            double averageLength = (double) totalLength / documentCount;
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Integer> termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                int documentFrequency = termPostings.size();
+                double idf = Math.log(1 + (documentCount - documentFrequency + 0.5)
+                        / (documentFrequency + 0.5));
+                termPostings.forEach((bookId, termFrequency) -> {
+                    double lengthRatio = documents.get(bookId).length() / averageLength;
+                    double score = idf * termFrequency * (K1 + 1)
+                            / (termFrequency + K1 * (1 - B + B * lengthRatio));
+                    scores.merge(bookId, score, Double::sum);
+                });
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .skip(offset)
+                    .limit(limit)
+                    .map(entry -> documents.get(entry.getKey()).book())
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(normalized))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    private void addDocument(BookDto book) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        addField(termFrequencies, tokenize(book.getTitle()), TITLE_WEIGHT);
+        addField(termFrequencies, tokenize(book.getAuthor()), AUTHOR_WEIGHT);
+        addField(termFrequencies, tokenize(book.getDescription()), TEXT_WEIGHT);
+        List<String> isbnTokens = new ArrayList<>(tokenize(book.getIsbn()));
+        if (isbnTokens.size() > 1) {
+            isbnTokens.add(String.join("", isbnTokens));
+        }
+        addField(termFrequencies, isbnTokens, TEXT_WEIGHT);
+
+        int length = termFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+        termFrequencies.forEach((term, frequency) -> postings
+                .computeIfAbsent(term, key -> new HashMap<>())
+                .put(book.getId(), frequency));
+        documents.put(book.getId(), new IndexedBook(book, termFrequencies.keySet(), length));
+        totalLength += length;
+    }
+
+    private void addField(Map<String, Integer> termFrequencies, List<String> tokens, int weight) {
+        tokens.forEach(token -> termFrequencies.merge(token, weight, Integer::sum));
+    }
+
+    private void removeDocument(Long bookId) {
+        IndexedBook existing = documents.remove(bookId);
+        if (existing == null) {
+            return;
+        }
+        totalLength -= existing.length();
+        for (String term : existing.terms()) {
+            Map<Long, Integer> termPostings = postings.get(term);
+            termPostings.remove(bookId);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private record IndexedBook(BookDto book, Set<String> terms, int length) {
+    }
+}
@@ -0,0 +1,203 @@
+package mate.academy.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import mate.academy.lib.TokenBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+    private static final String AUTH_PATH = "/api/auth/";
+    private static final String REJECTED_METRIC = "auth.rate_limit.rejected";
+    private static final String BUCKETS_METRIC = "auth.rate_limit.buckets";
+    private static final int MAX_INSPECTED_BODY_BYTES = 8 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Limit ipLimit;
+    private final Limit emailLimit;
+    private final Cache<String, TokenBucket> buckets;
+    @Value("${security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    public AuthRateLimitFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${security.rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${security.rate-limit.ip.refill-period:1m}") Duration ipRefillPeriod,
+            @Value("${security.rate-limit.email.capacity:5}") int emailCapacity,
+            @Value("${security.rate-limit.email.refill-period:1m}") Duration emailRefillPeriod,
+            @Value("${security.rate-limit.max-buckets:100000}") long maxBuckets) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        ipLimit = new Limit("ip", ipCapacity, ipRefillPeriod);
+        emailLimit = new Limit("email", emailCapacity, emailRefillPeriod);
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(ipRefillPeriod.compareTo(emailRefillPeriod) > 0
+                        ? ipRefillPeriod : emailRefillPeriod)
+                .build();
+        Gauge.builder(BUCKETS_METRIC, buckets, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.nanoTime();
+        long waitNanos = tryConsume(ipLimit, request.getRemoteAddr(), now);
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+        BodyInspectingRequest inspected = new BodyInspectingRequest(request);
+        String email = readEmail(inspected.getPrefix());
+        if (email != null) {
+            waitNanos = tryConsume(emailLimit, email, now);
+            if (waitNanos > 0) {
+                reject(response, waitNanos);
+                return;
+            }
+        }
+        filterChain.doFilter(inspected, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
+        return !enabled
+                || !HttpMethod.POST.matches(request.getMethod())
+                || !request.getRequestURI().startsWith(AUTH_PATH)
+                || request.getRequestURI().equals(JwtAuthenticationFilter.LOGOUT_PATH);
+    }
+
+    private long tryConsume(Limit limit, String key, long now) {
+        long waitNanos = buckets.get(limit.name() + ":" + key,
+                ignored -> new TokenBucket(limit.capacity(), limit.refillPeriod(), now))
+                .tryConsume(now);
+        if (waitNanos > 0) {
+            meterRegistry.counter(REJECTED_METRIC, "key", limit.name()).increment();
+        }
+        return waitNanos;
+    }
+
+    private String readEmail(byte[] body) {
+        if (body.length == 0 || body.length > MAX_INSPECTED_BODY_BYTES) {
+            return null;
+        }
+        try {
+            JsonNode email = objectMapper.readTree(body).path("email");
+            return email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(
+                waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS);
+        body.put("message", "Too many authentication attempts, retry in "
+                + retryAfterSeconds + " seconds");
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private record Limit(String name, int capacity, Duration refillPeriod) {
+    }
+
+    private static class BodyInspectingRequest extends HttpServletRequestWrapper {
+        private final byte[] prefix;
+        private final InputStream body;
+        private boolean finished;
+
+        BodyInspectingRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            InputStream original = request.getInputStream();
+            prefix = original.readNBytes(MAX_INSPECTED_BODY_BYTES + 1);
+            body = new SequenceInputStream(new ByteArrayInputStream(prefix), original);
+        }
+
+        byte[] getPrefix() {
+            return prefix;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return track(body.read());
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    return track(body.read(buffer, offset, length));
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws UnsupportedEncodingException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8.name() : encoding));
+        }
+
+        private int track(int read) {
+            finished = read == -1;
+            return read;
+        }
+    }
+}
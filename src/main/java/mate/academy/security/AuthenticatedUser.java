@@ -0,0 +1,11 @@
+package mate.academy.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+public record AuthenticatedUser(Long id, String email) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
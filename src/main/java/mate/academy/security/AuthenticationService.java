@@ -3,6 +3,8 @@ package mate.academy.security;
 import lombok.RequiredArgsConstructor;
 import mate.academy.dto.user.UserLoginRequestDto;
 import mate.academy.dto.user.UserLoginResponseDto;
+import mate.academy.model.User;
+import mate.academy.service.UserIdentityService;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -13,13 +15,20 @@ import org.springframework.stereotype.Service;
 public class AuthenticationService {
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final UserIdentityService userIdentityService;
 
     public UserLoginResponseDto authenticate(UserLoginRequestDto requestDto) {
         final Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(requestDto.email(), requestDto.password())
         );
 
-        String token = jwtUtil.generateToken(authentication.getName());
+        String token = jwtUtil.generateToken((User) authentication.getPrincipal());
         return new UserLoginResponseDto(token);
     }
+
+    public void logout(Authentication authentication) {
+        tokenVersionRegistry.revoke(authentication.getName());
+        userIdentityService.evict(authentication.getName());
+    }
 }
@@ -1,16 +1,21 @@
 package mate.academy.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
+import mate.academy.dto.user.UserIdentity;
+import mate.academy.service.UserIdentityService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -18,8 +23,12 @@ import org.springframework.web.filter.OncePerRequestFilter;
 @RequiredArgsConstructor
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    public static final String LOGOUT_PATH = "/api/auth/logout";
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final UserIdentityService userIdentityService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -27,19 +36,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
         String token = getToken(request);
-        if (token != null && jwtUtil.isValidToken(token)) {
-            String username = jwtUtil.getUsername(token);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            Authentication authentication = new UsernamePasswordAuthenticationToken(userDetails,
-                    null, userDetails.getAuthorities());
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (token != null) {
+            Authentication authentication = authenticate(jwtUtil.getClaims(token));
+            if (authentication != null) {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
         filterChain.doFilter(request, response);
     }
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
-        return request.getRequestURI().startsWith("/api/auth/");
+        return request.getRequestURI().startsWith("/api/auth/")
+                && !request.getRequestURI().equals(LOGOUT_PATH);
+    }
+
+    private Authentication authenticate(Claims claims) {
+        Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+        Integer tokenVersion = claims.get(JwtUtil.TOKEN_VERSION_CLAIM, Integer.class);
+        if (userId != null && tokenVersion != null
+                && tokenVersionRegistry.isRevoked(userId, tokenVersion)) {
+            return null;
+        }
+        List<?> roles = claims.get(JwtUtil.ROLES_CLAIM, List.class);
+        if (stateless && userId != null && roles != null) {
+            return authenticate(userId, claims.getSubject(), roles);
+        }
+        UserIdentity identity = userIdentityService.getIdentity(claims.getSubject());
+        return authenticate(identity.id(), identity.email(), identity.roles());
+    }
+
+    private Authentication authenticate(Long userId, String email, Collection<?> roles) {
+        return new UsernamePasswordAuthenticationToken(new AuthenticatedUser(userId, email),
+                null, roles.stream()
+                        .map(role -> new SimpleGrantedAuthority(role.toString()))
+                        .toList());
     }
 
     private String getToken(HttpServletRequest request) {
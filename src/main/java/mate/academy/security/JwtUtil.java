@@ -1,30 +1,56 @@
 package mate.academy.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import mate.academy.model.User;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtUtil {
-    private Key secret;
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLES_CLAIM = "roles";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+    private final Key secret;
+    private final JwtParser parser;
+    private final Cache<String, Claims> verifiedTokens;
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    public JwtUtil(@Value("${jwt.secret}") String secretString) {
+    public JwtUtil(@Value("${jwt.secret}") String secretString,
+                   @Value("${jwt.claims-cache-size:10000}") long claimsCacheSize) {
         secret = Keys.hmacShaKeyFor(secretString.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(secret)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new UntilTokenExpires())
+                .build();
     }
 
-    public String generateToken(String username) {
+    public String generateToken(User user) {
         return Jwts.builder()
-                .setSubject(username)
+                .setSubject(user.getEmail())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLES_CLAIM, user.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .toList())
+                .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(secret)
@@ -32,27 +58,64 @@ public class JwtUtil {
     }
 
     public boolean isValidToken(String token) {
+        return getClaims(token) != null;
+    }
+
+    public Claims getClaims(String token) {
+        if (token == null) {
+            throw new JwtException("Expired or invalid JWT token");
+        }
+        String tokenHash = hash(token);
+        Claims cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = verify(token);
+        verifiedTokens.put(tokenHash, claims);
+        return claims;
+    }
+
+    public String getUsername(String token) {
+        return getClaims(token).getSubject();
+    }
+
+    private Claims verify(String token) {
         try {
-            Jws<Claims> claimsJws = Jwts.parserBuilder()
-                    .setSigningKey(secret)
-                    .build()
-                    .parseClaimsJws(token);
-            return !claimsJws.getBody().getExpiration().before(new Date());
+            return parser.parseClaimsJws(token).getBody();
         } catch (JwtException | IllegalArgumentException e) {
             throw new JwtException("Expired or invalid JWT token");
         }
     }
 
-    public String getUsername(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+    private String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
-    private <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = Jwts.parserBuilder()
-                .setSigningKey(secret)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claimsResolver.apply(claims);
+    private static class UntilTokenExpires implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String tokenHash, Claims claims, long currentTime) {
+            if (claims.getExpiration() == null) {
+                return 0;
+            }
+            long millisLeft = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millisLeft));
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenHash, Claims claims, long currentTime,
+                                      long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String tokenHash, Claims claims, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
     }
 }
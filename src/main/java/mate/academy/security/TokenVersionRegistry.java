@@ -0,0 +1,54 @@
+package mate.academy.security;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import mate.academy.exception.EntityNotFoundException;
+import mate.academy.repository.user.UserRepository;
+import mate.academy.repository.user.UserTokenVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@RequiredArgsConstructor
+public class TokenVersionRegistry {
+    private final UserRepository userRepository;
+    private final Map<Long, Revocation> revocations = new ConcurrentHashMap<>();
+    @Value("${jwt.expiration}")
+    private Long expiration;
+
+    @Scheduled(fixedDelayString = "${jwt.revocation-refresh-interval:PT30S}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        LocalDateTime since = LocalDateTime.now().minus(expiration, ChronoUnit.MILLIS);
+        revocations.values().removeIf(revocation -> !revocation.revokedAt().isAfter(since));
+        userRepository.findTokenVersionsRevokedAfter(since).forEach(this::remember);
+    }
+
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        Revocation revocation = revocations.get(userId);
+        return revocation != null && tokenVersion < revocation.tokenVersion();
+    }
+
+    @Transactional
+    public void revoke(String email) {
+        userRepository.incrementTokenVersion(email, LocalDateTime.now());
+        remember(userRepository.findTokenVersionByEmail(email)
+                .orElseThrow(() -> new EntityNotFoundException("Can't find user by email "
+                        + email)));
+    }
+
+    private void remember(UserTokenVersion tokenVersion) {
+        revocations.merge(tokenVersion.getId(),
+                new Revocation(tokenVersion.getTokenVersion(), tokenVersion.getTokenRevokedAt()),
+                (current, latest) -> current.tokenVersion() >= latest.tokenVersion()
+                        ? current : latest);
+    }
+
+    private record Revocation(int tokenVersion, LocalDateTime revokedAt) {
+    }
+}
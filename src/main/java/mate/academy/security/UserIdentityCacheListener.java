@@ -0,0 +1,29 @@
+package mate.academy.security;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import mate.academy.model.User;
+import mate.academy.service.UserIdentityService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class UserIdentityCacheListener {
+    private final ObjectProvider<UserIdentityService> userIdentityService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void evict(Object entity) {
+        userIdentityService.ifAvailable(service -> {
+            if (entity instanceof User user) {
+                service.evict(user.getEmail());
+            } else {
+                service.evictAll();
+            }
+        });
+    }
+}
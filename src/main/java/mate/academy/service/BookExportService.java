@@ -0,0 +1,8 @@
+package mate.academy.service;
+
+import java.io.OutputStream;
+import mate.academy.dto.book.BookFileFormat;
+
+public interface BookExportService {
+    void export(BookFileFormat format, OutputStream outputStream);
+}
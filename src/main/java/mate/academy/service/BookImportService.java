@@ -0,0 +1,9 @@
+package mate.academy.service;
+
+import java.io.InputStream;
+import mate.academy.dto.book.BookFileFormat;
+import mate.academy.dto.book.BookImportResultDto;
+
+public interface BookImportService {
+    BookImportResultDto importBooks(BookFileFormat format, InputStream inputStream);
+}
@@ -1,6 +1,7 @@
 package mate.academy.service;
 
 import java.util.List;
+import mate.academy.dto.book.BookCursorPageDto;
 import mate.academy.dto.book.BookDto;
 import mate.academy.dto.book.BookDtoWithoutCategoryIds;
 import mate.academy.dto.book.BookSearchParameters;
@@ -12,14 +13,20 @@ public interface BookService {
 
     List<BookDto> findAll(Pageable pageable);
 
+    BookCursorPageDto findAllAfter(String cursor, Pageable pageable);
+
     BookDto findById(Long id);
 
     void deleteById(Long id);
 
     List<BookDto> search(BookSearchParameters searchParameters);
 
+    List<BookDto> fullTextSearch(String query, Pageable pageable);
+
     BookDto update(Long id, CreateBookRequestDto requestDto);
 
     List<BookDtoWithoutCategoryIds> findAllByCategoryId(Long categoryId);
 
+    void evictFromCache(List<Long> ids);
+
 }
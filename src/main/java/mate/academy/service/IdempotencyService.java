@@ -0,0 +1,11 @@
+package mate.academy.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    <T> T execute(String userEmail, String idempotencyKey, Object request,
+                  Class<T> responseType, Supplier<T> action);
+
+    int purgeExpired();
+}
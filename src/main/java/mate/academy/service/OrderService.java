@@ -10,8 +10,8 @@ import org.springframework.security.core.Authentication;
 
 public interface OrderService {
 
-    void placeOrder(Authentication authentication,
-                    ShippingAddressRequestDto shippingAddress);
+    OrderResponseDto placeOrder(Authentication authentication,
+                                ShippingAddressRequestDto shippingAddress);
 
     List<OrderResponseDto> getAllOrders(Authentication authentication, Pageable pageable);
 
@@ -1,5 +1,7 @@
 package mate.academy.service;
 
+import mate.academy.dto.cart.CartBatchRequestDto;
+import mate.academy.dto.cart.CartSummaryDto;
 import mate.academy.dto.cart.ShoppingCartDto;
 import mate.academy.dto.cartitem.CartItemQuantityRequestDto;
 import mate.academy.dto.cartitem.CartItemRequestDto;
@@ -10,6 +12,17 @@ public interface ShoppingCartService {
 
     ShoppingCartDto getAllCartItems(Authentication authentication);
 
+    CartSummaryDto getSummary(Authentication authentication);
+
     void updateBookQuantity(Authentication authentication, Long cartItemId,
                             CartItemQuantityRequestDto qtyToSubtract);
+
+    void removeCartItem(Authentication authentication, Long cartItemId);
+
+    ShoppingCartDto updateCart(Authentication authentication,
+                               CartBatchRequestDto cartBatchRequestDto);
+
+    void flushCart(Authentication authentication);
+
+    void evictCart(Long userId);
 }
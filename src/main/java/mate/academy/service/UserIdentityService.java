@@ -0,0 +1,15 @@
+package mate.academy.service;
+
+import mate.academy.dto.user.UserIdentity;
+import org.springframework.security.core.Authentication;
+
+public interface UserIdentityService {
+
+    UserIdentity getIdentity(Authentication authentication);
+
+    UserIdentity getIdentity(String email);
+
+    void evict(String email);
+
+    void evictAll();
+}
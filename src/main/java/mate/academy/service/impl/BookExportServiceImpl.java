@@ -0,0 +1,181 @@
+package mate.academy.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import mate.academy.dto.book.BookFileFormat;
+import mate.academy.exception.DataProcessingException;
+import mate.academy.model.Book;
+import mate.academy.service.BookExportService;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@RequiredArgsConstructor
+@Service
+public class BookExportServiceImpl implements BookExportService {
+    private static final String EXPORT_QUERY = "SELECT b, c.id FROM Book b "
+            + "LEFT JOIN b.categories c ORDER BY b.id";
+    private static final String[] CSV_HEADER = {"id", "title", "author", "isbn", "price",
+            "description", "coverImage", "categoryIds"};
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    @Value("${export.books.fetch-size:500}")
+    private int fetchSize;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void export(BookFileFormat format, OutputStream outputStream) {
+        try (BookWriter writer = createWriter(format, outputStream);
+                ScrollableResults<Object[]> rows = entityManager.unwrap(Session.class)
+                        .createSelectionQuery(EXPORT_QUERY, Object[].class)
+                        .setFetchSize(fetchSize)
+                        .setReadOnly(true)
+                        .setCacheMode(CacheMode.IGNORE)
+                        .scroll(ScrollMode.FORWARD_ONLY)) {
+            Book current = null;
+            List<Long> categoryIds = new ArrayList<>();
+            int rowsInContext = 0;
+            while (rows.next()) {
+                Object[] row = rows.get();
+                Book book = (Book) row[0];
+                if (current != null && !current.getId().equals(book.getId())) {
+                    writer.write(current, categoryIds);
+                    categoryIds = new ArrayList<>();
+                    if (rowsInContext >= fetchSize) {
+                        writer.flush();
+                        entityManager.clear();
+                        rowsInContext = 0;
+                    }
+                }
+                current = book;
+                if (row[1] != null) {
+                    categoryIds.add((Long) row[1]);
+                }
+                rowsInContext++;
+            }
+            if (current != null) {
+                writer.write(current, categoryIds);
+            }
+        } catch (IOException e) {
+            throw new DataProcessingException("Can't export books as " + format, e);
+        }
+    }
+
+    private BookWriter createWriter(BookFileFormat format, OutputStream outputStream)
+            throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonBookWriter(objectMapper.getFactory()
+                    .createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null));
+            case CSV -> new CsvBookWriter(new BufferedWriter(
+                    new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+        };
+    }
+
+    private interface BookWriter extends AutoCloseable {
+        void write(Book book, List<Long> categoryIds) throws IOException;
+
+        void flush() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private record NdjsonBookWriter(JsonGenerator generator) implements BookWriter {
+        @Override
+        public void write(Book book, List<Long> categoryIds) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", book.getId());
+            generator.writeStringField("title", book.getTitle());
+            generator.writeStringField("author", book.getAuthor());
+            generator.writeStringField("isbn", book.getIsbn());
+            generator.writeNumberField("price", book.getPrice());
+            generator.writeStringField("description", book.getDescription());
+            generator.writeStringField("coverImage", book.getCoverImage());
+            generator.writeArrayFieldStart("categoryIds");
+            for (Long categoryId : categoryIds) {
+                generator.writeNumber(categoryId);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvBookWriter implements BookWriter {
+        private final Writer writer;
+
+        private CsvBookWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(String.join(",", CSV_HEADER));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(Book book, List<Long> categoryIds) throws IOException {
+            writer.write(String.valueOf(book.getId()));
+            writeField(book.getTitle());
+            writeField(book.getAuthor());
+            writeField(book.getIsbn());
+            writeField(book.getPrice().toPlainString());
+            writeField(book.getDescription());
+            writeField(book.getCoverImage());
+            writeField(categoryIds.stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(";")));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        private void writeField(String value) throws IOException {
+            writer.write(',');
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package mate.academy.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import mate.academy.dto.book.BookFileFormat;
+import mate.academy.dto.book.BookImportChunkDto;
+import mate.academy.dto.book.BookImportResultDto;
+import mate.academy.dto.book.CreateBookRequestDto;
+import mate.academy.dto.book.RejectedBookRowDto;
+import mate.academy.event.BooksChangedEvent;
+import mate.academy.exception.DataProcessingException;
+import mate.academy.lib.CsvRecordReader;
+import mate.academy.mapper.BookMapper;
+import mate.academy.model.Book;
+import mate.academy.repository.EntityIdAllocator;
+import mate.academy.repository.book.BookRepository;
+import mate.academy.search.BookSearchIndex;
+import mate.academy.service.BookImportService;
+import mate.academy.service.BookService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@RequiredArgsConstructor
+@Service
+public class BookImportServiceImpl implements BookImportService {
+    private static final String UPSERT_BOOK_SQL = "INSERT INTO books "
+            + "(id, title, author, isbn, price, description, cover_image, is_deleted) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, FALSE) "
+            + "ON DUPLICATE KEY UPDATE title = VALUES(title), author = VALUES(author), "
+            + "price = VALUES(price), description = VALUES(description), "
+            + "cover_image = VALUES(cover_image), is_deleted = FALSE";
+    private static final String SELECT_BOOK_IDS_SQL =
+            "SELECT id, isbn FROM books WHERE isbn IN (:isbns)";
+    private static final String SELECT_CATEGORY_IDS_SQL =
+            "SELECT id FROM categories WHERE id IN (:ids) AND is_deleted = FALSE";
+    private static final String DELETE_LINKS_SQL =
+            "DELETE FROM books_categories WHERE book_id IN (:ids)";
+    private static final String INSERT_LINK_SQL =
+            "INSERT INTO books_categories (book_id, category_id) VALUES (?, ?)";
+    private static final String CATEGORY_IDS_SEPARATOR = ";";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookService bookService;
+    private final EntityIdAllocator entityIdAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    @Value("${import.books.chunk-size:1000}")
+    private int chunkSize;
+    @Value("${import.books.max-reported-rejections:1000}")
+    private int maxReportedRejections;
+
+    @Override
+    public BookImportResultDto importBooks(BookFileFormat format, InputStream inputStream) {
+        BookImportResultDto result = new BookImportResultDto();
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        try {
+            RowSource rows = format == BookFileFormat.CSV
+                    ? new CsvRowSource(new CsvRecordReader(reader))
+                    : new NdjsonRowSource(reader, objectMapper.readerFor(
+                            CreateBookRequestDto.class));
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            ImportRow row;
+            while ((row = rows.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, result);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, result);
+            }
+        } catch (IOException e) {
+            throw new DataProcessingException("Can't read books import as " + format, e);
+        }
+        return result;
+    }
+
+    private void importChunk(List<ImportRow> rows, BookImportResultDto result) {
+        final long start = System.nanoTime();
+        List<ImportRow> validRows = new ArrayList<>();
+        Map<String, Long> rowsByIsbn = new HashMap<>();
+        int rejected = 0;
+        for (ImportRow row : rows) {
+            List<String> errors = row.errors().isEmpty() ? validate(row.book()) : row.errors();
+            Long firstRow = errors.isEmpty()
+                    ? rowsByIsbn.putIfAbsent(row.book().getIsbn(), row.number())
+                    : null;
+            if (firstRow != null) {
+                errors = List.of("Duplicate isbn " + row.book().getIsbn() + " of row " + firstRow);
+            }
+            if (errors.isEmpty()) {
+                validRows.add(row);
+            } else {
+                reject(result, row, errors);
+                rejected++;
+            }
+        }
+        List<ImportRow> acceptedRows = new ArrayList<>();
+        Set<Long> existingCategoryIds = findExistingCategoryIds(validRows);
+        for (ImportRow row : validRows) {
+            Set<Long> categoryIds = row.book().getCategoryIds();
+            if (categoryIds == null || existingCategoryIds.containsAll(categoryIds)) {
+                acceptedRows.add(row);
+            } else {
+                reject(result, row, List.of("Unknown category ids " + categoryIds.stream()
+                        .filter(id -> !existingCategoryIds.contains(id))
+                        .toList()));
+                rejected++;
+            }
+        }
+        int imported = 0;
+        if (!acceptedRows.isEmpty()) {
+            try {
+                List<Long> newIds = entityIdAllocator.allocate(Book.class, acceptedRows.size());
+                List<Long> bookIds = transactionTemplate.execute(
+                        status -> writeChunk(acceptedRows, newIds));
+                imported = acceptedRows.size();
+                refresh(bookIds);
+            } catch (DataAccessException e) {
+                String error = "Can't write chunk: " + e.getMostSpecificCause().getMessage();
+                acceptedRows.forEach(row -> reject(result, row, List.of(error)));
+                rejected += acceptedRows.size();
+            }
+        }
+        result.setImported(result.getImported() + imported);
+        result.getChunks().add(new BookImportChunkDto()
+                .setChunk(result.getChunks().size() + 1)
+                .setFirstRow(rows.get(0).number())
+                .setLastRow(rows.get(rows.size() - 1).number())
+                .setImported(imported)
+                .setRejected(rejected)
+                .setDurationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+
+    private List<Long> writeChunk(List<ImportRow> rows, List<Long> newIds) {
+        Map<String, CreateBookRequestDto> booksByIsbn = new LinkedHashMap<>();
+        rows.forEach(row -> booksByIsbn.put(row.book().getIsbn(), row.book()));
+        Collection<CreateBookRequestDto> books = booksByIsbn.values();
+        Iterator<Long> nextId = newIds.iterator();
+        jdbcTemplate.batchUpdate(UPSERT_BOOK_SQL, books, books.size(), (statement, book) -> {
+            statement.setLong(1, nextId.next());
+            statement.setString(2, book.getTitle());
+            statement.setString(3, book.getAuthor());
+            statement.setString(4, book.getIsbn());
+            statement.setBigDecimal(5, book.getPrice());
+            statement.setString(6, book.getDescription());
+            statement.setString(7, book.getCoverImage());
+        });
+        Map<String, Long> idsByIsbn = new HashMap<>();
+        namedParameterJdbcTemplate.query(SELECT_BOOK_IDS_SQL,
+                Map.of("isbns", booksByIsbn.keySet()),
+                resultSet -> {
+                    idsByIsbn.put(resultSet.getString("isbn"), resultSet.getLong("id"));
+                });
+        List<Long> relinkedBookIds = new ArrayList<>();
+        List<long[]> links = new ArrayList<>();
+        booksByIsbn.forEach((isbn, book) -> {
+            if (book.getCategoryIds() != null) {
+                Long bookId = idsByIsbn.get(isbn);
+                relinkedBookIds.add(bookId);
+                book.getCategoryIds().forEach(categoryId ->
+                        links.add(new long[]{bookId, categoryId}));
+            }
+        });
+        if (!relinkedBookIds.isEmpty()) {
+            namedParameterJdbcTemplate.update(DELETE_LINKS_SQL, Map.of("ids", relinkedBookIds));
+        }
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_LINK_SQL, links, links.size(), (statement, link) -> {
+                statement.setLong(1, link[0]);
+                statement.setLong(2, link[1]);
+            });
+        }
+        return new ArrayList<>(idsByIsbn.values());
+    }
+
+    private void refresh(List<Long> bookIds) {
+        bookService.evictFromCache(bookIds);
+        bookRepository.findAllWithCategoriesByIdIn(bookIds).stream()
+                .map(bookMapper::toDto)
+                .forEach(bookSearchIndex::index);
+        eventPublisher.publishEvent(new BooksChangedEvent(bookIds, true));
+    }
+
+    private Set<Long> findExistingCategoryIds(List<ImportRow> rows) {
+        Set<Long> categoryIds = rows.stream()
+                .map(row -> row.book().getCategoryIds())
+                .filter(Objects::nonNull)
+                .flatMap(Set::stream)
+                .collect(Collectors.toSet());
+        if (categoryIds.isEmpty()) {
+            return categoryIds;
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(SELECT_CATEGORY_IDS_SQL,
+                Map.of("ids", categoryIds), Long.class));
+    }
+
+    private List<String> validate(CreateBookRequestDto book) {
+        return validator.validate(book).stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    private void reject(BookImportResultDto result, ImportRow row, List<String> errors) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getRejectedRows().size() < maxReportedRejections) {
+            result.getRejectedRows().add(new RejectedBookRowDto()
+                    .setRow(row.number())
+                    .setIsbn(row.book() == null ? null : row.book().getIsbn())
+                    .setErrors(errors));
+        }
+    }
+
+    private interface RowSource {
+        ImportRow next() throws IOException;
+    }
+
+    private record ImportRow(long number, CreateBookRequestDto book, List<String> errors) {
+        static ImportRow valid(long number, CreateBookRequestDto book) {
+            return new ImportRow(number, book, List.of());
+        }
+
+        static ImportRow invalid(long number, CreateBookRequestDto book, String error) {
+            return new ImportRow(number, book, List.of(error));
+        }
+    }
+
+    private static final class NdjsonRowSource implements RowSource {
+        private final BufferedReader reader;
+        private final ObjectReader objectReader;
+        private long lineNumber;
+
+        private NdjsonRowSource(BufferedReader reader, ObjectReader objectReader) {
+            this.reader = reader;
+            this.objectReader = objectReader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            try {
+                return ImportRow.valid(lineNumber, objectReader.readValue(line));
+            } catch (JsonProcessingException e) {
+                return ImportRow.invalid(lineNumber, null,
+                        "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static final class CsvRowSource implements RowSource {
+        private final CsvRecordReader reader;
+        private Map<String, Integer> columns;
+        private long recordNumber;
+
+        private CsvRowSource(CsvRecordReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            if (columns == null && !readHeader()) {
+                return null;
+            }
+            List<String> record;
+            do {
+                record = reader.next();
+                recordNumber++;
+            } while (record != null && record.size() == 1 && record.get(0).isBlank());
+            if (record == null) {
+                return null;
+            }
+            CreateBookRequestDto book = new CreateBookRequestDto()
+                    .setTitle(field(record, "title"))
+                    .setAuthor(field(record, "author"))
+                    .setIsbn(field(record, "isbn"))
+                    .setDescription(field(record, "description"))
+                    .setCoverImage(field(record, "coverImage"));
+            try {
+                String price = field(record, "price");
+                book.setPrice(price == null ? null : new BigDecimal(price));
+                String categoryIds = field(record, "categoryIds");
+                book.setCategoryIds(categoryIds == null ? null : parseIds(categoryIds));
+            } catch (NumberFormatException e) {
+                return ImportRow.invalid(recordNumber, book, "Malformed number: "
+                        + e.getMessage());
+            }
+            return ImportRow.valid(recordNumber, book);
+        }
+
+        private boolean readHeader() throws IOException {
+            List<String> header = reader.next();
+            if (header == null) {
+                return false;
+            }
+            columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim(), i);
+            }
+            return true;
+        }
+
+        private String field(List<String> record, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+                return null;
+            }
+            return record.get(index);
+        }
+
+        private Set<Long> parseIds(String value) {
+            return Arrays.stream(value.split(CATEGORY_IDS_SEPARATOR))
+                    .map(String::trim)
+                    .filter(id -> !id.isEmpty())
+                    .map(Long::valueOf)
+                    .collect(Collectors.toSet());
+        }
+    }
+}
@@ -1,32 +1,60 @@
 package mate.academy.service.impl;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
 import lombok.RequiredArgsConstructor;
+import mate.academy.config.CacheConfig;
+import mate.academy.dto.book.BookCursorPageDto;
 import mate.academy.dto.book.BookDto;
 import mate.academy.dto.book.BookDtoWithoutCategoryIds;
+import mate.academy.dto.book.BookPageCursor;
 import mate.academy.dto.book.BookSearchParameters;
 import mate.academy.dto.book.CreateBookRequestDto;
+import mate.academy.event.BooksChangedEvent;
 import mate.academy.exception.EntityNotFoundException;
+import mate.academy.lib.SingleFlight;
 import mate.academy.mapper.BookMapper;
 import mate.academy.model.Book;
 import mate.academy.repository.book.BookRepository;
 import mate.academy.repository.book.BookSpecificationBuilder;
+import mate.academy.search.BookSearchIndex;
 import mate.academy.service.BookService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @RequiredArgsConstructor
 @Service
 public class BookServiceImpl implements BookService {
+    private static final String FIND_BY_ID_FLIGHT = "books.findById";
+    private static final String FIND_BY_CATEGORY_FLIGHT = "books.findAllByCategoryId";
+    private static final int VERSION_STRIPES = 1024;
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
     private final BookSpecificationBuilder bookSpecificationBuilder;
+    private final BookSearchIndex bookSearchIndex;
+    private final SingleFlight singleFlight;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final AtomicLongArray bookVersions = new AtomicLongArray(VERSION_STRIPES);
 
     @Override
+    @CachePut(cacheNames = CacheConfig.BOOKS_CACHE, key = "#result.id")
     public BookDto save(CreateBookRequestDto requestDto) {
         Book book = bookMapper.toModel(requestDto);
-        return bookMapper.toDto(bookRepository.save(book));
+        BookDto savedBook = bookMapper.toDto(bookRepository.save(book));
+        bookSearchIndex.index(savedBook);
+        singleFlight.forgetAll(FIND_BY_CATEGORY_FLIGHT);
+        return savedBook;
     }
 
     @Override
@@ -36,15 +64,56 @@ public class BookServiceImpl implements BookService {
                 .toList();
     }
 
+    @Override
+    public BookCursorPageDto findAllAfter(String cursor, Pageable pageable) {
+        BookPageCursor pageCursor = cursor.isEmpty() ? null : BookPageCursor.decode(cursor);
+        BookPageCursor.SortKey sortKey = pageCursor != null
+                ? pageCursor.sortKey()
+                : BookPageCursor.SortKey.from(pageable.getSort());
+        int pageSize = pageable.getPageSize();
+        List<Long> ids = findIdsAfter(sortKey, pageCursor, pageSize + 1);
+        boolean hasNext = ids.size() > pageSize;
+        if (hasNext) {
+            ids = ids.subList(0, pageSize);
+        }
+        List<Book> books = bookRepository.findAllWithCategoriesInOrder(ids);
+        String nextCursor = hasNext && !books.isEmpty()
+                ? BookPageCursor.of(sortKey, books.get(books.size() - 1)).encode()
+                : null;
+        return new BookCursorPageDto()
+                .setBooks(books.stream().map(bookMapper::toDto).toList())
+                .setNextCursor(nextCursor);
+    }
+
     @Override
     public BookDto findById(Long id) {
-        return bookMapper.toDto(bookRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Can't find book by id " + id)));
+        Cache cache = cacheManager.getCache(CacheConfig.BOOKS_CACHE);
+        BookDto cached = cache == null ? null : cache.get(id, BookDto.class);
+        if (cached != null) {
+            return cached;
+        }
+        long version = bookVersions.get(versionStripe(id));
+        BookDto book = singleFlight.execute(FIND_BY_ID_FLIGHT, id, () -> bookMapper.toDto(
+                bookRepository.findById(id).orElseThrow(
+                        () -> new EntityNotFoundException("Can't find book by id " + id))));
+        if (cache != null) {
+            cache.put(id, book);
+            if (bookVersions.get(versionStripe(id)) != version) {
+                cache.evict(id);
+            }
+        }
+        return book;
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id) {
         bookRepository.deleteById(id);
+        eventPublisher.publishEvent(new BooksChangedEvent(List.of(id), true));
+        afterCommit(() -> {
+            bookSearchIndex.remove(id);
+            forgetBookReads(id);
+        });
     }
 
     @Override
@@ -55,22 +124,88 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
+    public List<BookDto> fullTextSearch(String query, Pageable pageable) {
+        return bookSearchIndex.search(query, pageable.getOffset(), pageable.getPageSize());
+    }
+
+    @Override
+    @Transactional
     public BookDto update(Long id, CreateBookRequestDto requestDto) {
         Book existingBook = bookRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Can't find book by id " + id));
+        final boolean priceChanged = existingBook.getPrice().compareTo(requestDto.getPrice()) != 0;
         existingBook.setTitle(requestDto.getTitle());
         existingBook.setAuthor(requestDto.getAuthor());
         existingBook.setPrice(requestDto.getPrice());
         existingBook.setDescription(requestDto.getDescription());
         existingBook.setCoverImage(existingBook.getCoverImage());
         Book updatedBookInDb = bookRepository.save(existingBook);
-        return bookMapper.toDto(updatedBookInDb);
+        eventPublisher.publishEvent(new BooksChangedEvent(List.of(id), priceChanged));
+        BookDto updatedBook = bookMapper.toDto(updatedBookInDb);
+        afterCommit(() -> {
+            bookSearchIndex.index(updatedBook);
+            forgetBookReads(id);
+        });
+        return updatedBook;
     }
 
     @Override
     public List<BookDtoWithoutCategoryIds> findAllByCategoryId(Long categoryId) {
-        return bookRepository.findAllByCategoryId(categoryId).stream()
-                .map(bookMapper::toDtoWithoutCategories)
-                .toList();
+        return singleFlight.execute(FIND_BY_CATEGORY_FLIGHT, categoryId,
+                () -> bookRepository.findAllByCategoryId(categoryId).stream()
+                        .map(bookMapper::toDtoWithoutCategories)
+                        .toList());
+    }
+
+    @Override
+    public void evictFromCache(List<Long> ids) {
+        ids.forEach(this::forgetBookReads);
+    }
+
+    private List<Long> findIdsAfter(BookPageCursor.SortKey sortKey, BookPageCursor cursor,
+                                    int limit) {
+        if (cursor == null) {
+            Sort sort = Sort.by(sortKey.getProperty());
+            if (sortKey != BookPageCursor.SortKey.ID) {
+                sort = sort.and(Sort.by("id"));
+            }
+            return bookRepository.findFirstPageIds(PageRequest.of(0, limit, sort));
+        }
+        Pageable firstRows = PageRequest.of(0, limit);
+        return switch (sortKey) {
+            case ID -> bookRepository.findIdsAfterId(cursor.id(), firstRows);
+            case TITLE -> bookRepository.findIdsAfterTitle(cursor.value(), cursor.id(),
+                    firstRows);
+            case PRICE -> bookRepository.findIdsAfterPrice(cursor.priceValue(),
+                    cursor.id(), firstRows);
+        };
+    }
+
+    private void forgetBookReads(Long id) {
+        bookVersions.incrementAndGet(versionStripe(id));
+        Cache cache = cacheManager.getCache(CacheConfig.BOOKS_CACHE);
+        if (cache != null) {
+            cache.evict(id);
+        }
+        singleFlight.forget(FIND_BY_ID_FLIGHT, id);
+        singleFlight.forgetAll(FIND_BY_CATEGORY_FLIGHT);
+    }
+
+    private int versionStripe(Long id) {
+        return Math.floorMod(id.hashCode(), VERSION_STRIPES);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                });
     }
 }
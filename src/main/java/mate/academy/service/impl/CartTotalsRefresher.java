@@ -0,0 +1,73 @@
+package mate.academy.service.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import mate.academy.event.BooksChangedEvent;
+import mate.academy.repository.cart.ShoppingCartRepository;
+import mate.academy.repository.cartitem.CartItemRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Component
+public class CartTotalsRefresher {
+    private final ShoppingCartRepository shoppingCartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor taskExecutor;
+    private final int batchSize;
+
+    public CartTotalsRefresher(
+            ShoppingCartRepository shoppingCartRepository,
+            CartItemRepository cartItemRepository,
+            PlatformTransactionManager transactionManager,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+            Executor taskExecutor,
+            @Value("${cart.totals.refresh-batch-size:500}") int batchSize) {
+        this.shoppingCartRepository = shoppingCartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.batchSize = batchSize;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksChanged(BooksChangedEvent event) {
+        if (event.pricesChanged() && !event.bookIds().isEmpty()) {
+            List<Long> bookIds = List.copyOf(event.bookIds());
+            taskExecutor.execute(() -> refreshTotals(bookIds));
+        }
+    }
+
+    private void refreshTotals(Collection<Long> bookIds) {
+        Long afterId = 0L;
+        List<Long> cartIds;
+        try {
+            do {
+                cartIds = shoppingCartRepository.findIdsByBookIdIn(bookIds, afterId, batchSize);
+                if (!cartIds.isEmpty()) {
+                    List<Long> batch = cartIds;
+                    transactionTemplate.executeWithoutResult(status -> {
+                        shoppingCartRepository.lockIdsByIdIn(batch);
+                        cartItemRepository.refreshPricesByShoppingCartIdInAndBookIdIn(
+                                batch, bookIds);
+                        shoppingCartRepository.refreshTotalsByIdIn(batch);
+                    });
+                    afterId = cartIds.get(cartIds.size() - 1);
+                }
+            } while (cartIds.size() == batchSize);
+        } catch (DataAccessException e) {
+            log.warn("Can't refresh prices of shopping carts after id {} holding books {},"
+                    + " they keep the previous prices until the books change again",
+                    afterId, bookIds, e);
+        }
+    }
+}
@@ -2,21 +2,26 @@ package mate.academy.service.impl;
 
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import mate.academy.config.CacheConfig;
 import mate.academy.dto.category.CategoryDto;
 import mate.academy.dto.category.CategoryResponseDto;
 import mate.academy.exception.EntityNotFoundException;
+import mate.academy.lib.SingleFlight;
 import mate.academy.mapper.CategoryMapper;
 import mate.academy.model.Category;
 import mate.academy.repository.category.CategoryRepository;
 import mate.academy.service.CategoryService;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 @RequiredArgsConstructor
 @Service
 public class CategoryServiceImpl implements CategoryService {
+    private static final String GET_BY_ID_FLIGHT = "categories.getById";
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final SingleFlight singleFlight;
 
     @Override
     public List<CategoryResponseDto> findAll(Pageable pageable) {
@@ -27,9 +32,9 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public CategoryResponseDto getById(Long id) {
-        return categoryMapper.toDto(categoryRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Can't find category by id "
-                + id)));
+        return singleFlight.execute(GET_BY_ID_FLIGHT, id, () -> categoryMapper.toDto(
+                categoryRepository.findById(id).orElseThrow(
+                        () -> new EntityNotFoundException("Can't find category by id " + id))));
     }
 
     @Override
@@ -46,11 +51,14 @@ public class CategoryServiceImpl implements CategoryService {
         existingCategory.setName(categoryDto.getName());
         existingCategory.setDescription(categoryDto.getDescription());
         Category updatedCategoryInDb = categoryRepository.save(existingCategory);
+        singleFlight.forget(GET_BY_ID_FLIGHT, id);
         return categoryMapper.toDto(updatedCategoryInDb);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, allEntries = true)
     public void deleteById(Long id) {
         categoryRepository.deleteById(id);
+        singleFlight.forget(GET_BY_ID_FLIGHT, id);
     }
 }
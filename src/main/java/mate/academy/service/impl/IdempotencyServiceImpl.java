@@ -0,0 +1,210 @@
+package mate.academy.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import mate.academy.exception.DataProcessingException;
+import mate.academy.exception.IdempotencyKeyConflictException;
+import mate.academy.exception.InvalidIdempotencyKeyException;
+import mate.academy.lib.SingleFlight;
+import mate.academy.model.IdempotencyRecord;
+import mate.academy.repository.idempotency.IdempotencyRecordRepository;
+import mate.academy.service.IdempotencyService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@RequiredArgsConstructor
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+    private static final String FLIGHT = "idempotency.execute";
+    private static final String REQUESTS_METRIC = "idempotency.requests";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SingleFlight singleFlight;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Cache<Scope, StoredResponse> completedResponses = Caffeine.newBuilder()
+            .expireAfter(new UntilExpiresAt())
+            .maximumSize(10_000)
+            .build();
+    @Value("${idempotency.ttl:24h}")
+    private Duration ttl;
+    @Value("${idempotency.lock-timeout:1m}")
+    private Duration lockTimeout;
+
+    @Override
+    public <T> T execute(String userEmail, String idempotencyKey, Object request,
+                         Class<T> responseType, Supplier<T> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("Idempotency-Key must contain from 1 to "
+                    + MAX_KEY_LENGTH + " characters");
+        }
+        Scope scope = new Scope(userEmail, idempotencyKey);
+        String requestHash = hash(request);
+        StoredResponse response = completedResponses.getIfPresent(scope);
+        if (response == null) {
+            response = singleFlight.execute(FLIGHT, scope,
+                    () -> executeOnce(scope, requestHash, action));
+        } else {
+            meterRegistry.counter(REQUESTS_METRIC, "outcome", "replayed").increment();
+        }
+        if (!response.requestHash().equals(requestHash)) {
+            throw new InvalidIdempotencyKeyException("Idempotency-Key " + idempotencyKey
+                    + " was already used with a different request");
+        }
+        return read(response.body(), responseType);
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval:PT1H}")
+    public int purgeExpired() {
+        return idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private StoredResponse executeOnce(Scope scope, String requestHash, Supplier<?> action) {
+        StoredResponse cached = completedResponses.getIfPresent(scope);
+        if (cached != null) {
+            meterRegistry.counter(REQUESTS_METRIC, "outcome", "replayed").increment();
+            return cached;
+        }
+        IdempotencyRecord record = reserve(scope, requestHash);
+        if (record.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+            meterRegistry.counter(REQUESTS_METRIC, "outcome", "replayed").increment();
+            return remember(scope, record);
+        }
+        meterRegistry.counter(REQUESTS_METRIC, "outcome", "executed").increment();
+        try {
+            IdempotencyRecord completed = transactionTemplate.execute(status ->
+                    idempotencyRecordRepository.save(record
+                            .setStatus(IdempotencyRecord.Status.COMPLETED)
+                            .setResponseBody(write(action.get()))));
+            return remember(scope, completed);
+        } catch (RuntimeException | Error e) {
+            transactionTemplate.executeWithoutResult(status ->
+                    idempotencyRecordRepository.deleteById(record.getId()));
+            throw e;
+        }
+    }
+
+    private IdempotencyRecord reserve(Scope scope, String requestHash) {
+        try {
+            return transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                Optional<IdempotencyRecord> existing = idempotencyRecordRepository
+                        .findByUserEmailAndIdempotencyKey(scope.userEmail(), scope.key());
+                if (existing.isPresent()) {
+                    IdempotencyRecord record = existing.get();
+                    if (isCompleted(record, now)) {
+                        return record;
+                    }
+                    if (isLocked(record, now)) {
+                        throw new IdempotencyKeyConflictException("Request with Idempotency-Key "
+                                + scope.key() + " is still in progress");
+                    }
+                    idempotencyRecordRepository.delete(record);
+                    idempotencyRecordRepository.flush();
+                }
+                return idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord()
+                        .setUserEmail(scope.userEmail())
+                        .setIdempotencyKey(scope.key())
+                        .setRequestHash(requestHash)
+                        .setStatus(IdempotencyRecord.Status.IN_PROGRESS)
+                        .setCreatedAt(now)
+                        .setExpiresAt(now.plus(ttl)));
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new IdempotencyKeyConflictException("Request with Idempotency-Key "
+                    + scope.key() + " is still in progress");
+        }
+    }
+
+    private boolean isCompleted(IdempotencyRecord record, LocalDateTime now) {
+        return record.getStatus() == IdempotencyRecord.Status.COMPLETED
+                && record.getExpiresAt().isAfter(now);
+    }
+
+    private boolean isLocked(IdempotencyRecord record, LocalDateTime now) {
+        return record.getStatus() == IdempotencyRecord.Status.IN_PROGRESS
+                && record.getCreatedAt().plus(lockTimeout).isAfter(now);
+    }
+
+    private StoredResponse remember(Scope scope, IdempotencyRecord record) {
+        StoredResponse response = new StoredResponse(record.getRequestHash(),
+                record.getResponseBody(), record.getExpiresAt());
+        completedResponses.put(scope, response);
+        return response;
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new DataProcessingException("Can't hash request " + request, e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new DataProcessingException("Can't store response " + response, e);
+        }
+    }
+
+    private <T> T read(String body, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (JsonProcessingException e) {
+            throw new DataProcessingException("Can't read stored response " + body, e);
+        }
+    }
+
+    private record Scope(String userEmail, String key) {
+    }
+
+    private record StoredResponse(String requestHash, String body, LocalDateTime expiresAt) {
+    }
+
+    private static class UntilExpiresAt implements Expiry<Scope, StoredResponse> {
+        @Override
+        public long expireAfterCreate(Scope scope, StoredResponse response, long currentTime) {
+            return Math.max(0, Duration.between(LocalDateTime.now(), response.expiresAt())
+                    .toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(Scope scope, StoredResponse response, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(scope, response, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Scope scope, StoredResponse response, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
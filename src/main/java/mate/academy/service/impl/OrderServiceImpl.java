@@ -1,10 +1,11 @@
 package mate.academy.service.impl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
 import mate.academy.dto.order.OrderResponseDto;
 import mate.academy.dto.order.OrderStatusDto;
@@ -13,56 +14,59 @@ import mate.academy.dto.orderitem.OrderItemResponseDto;
 import mate.academy.exception.EntityNotFoundException;
 import mate.academy.mapper.OrderItemMapper;
 import mate.academy.mapper.OrderMapper;
+import mate.academy.model.CartItem;
 import mate.academy.model.Order;
 import mate.academy.model.OrderItem;
 import mate.academy.model.ShoppingCart;
-import mate.academy.model.User;
 import mate.academy.repository.cart.ShoppingCartRepository;
 import mate.academy.repository.order.OrderRepository;
-import mate.academy.repository.orderitem.OrderItemRepository;
-import mate.academy.repository.user.UserRepository;
 import mate.academy.service.OrderService;
+import mate.academy.service.ShoppingCartService;
+import mate.academy.service.UserIdentityService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
+    private static final String CHECKOUT_METRIC = "checkout.phase";
     private final OrderRepository orderRepository;
-    private final UserRepository userRepository;
+    private final UserIdentityService userIdentityService;
     private final ShoppingCartRepository shoppingCartRepository;
-    private final OrderItemRepository orderItemRepository;
+    private final ShoppingCartService shoppingCartService;
     private final OrderMapper orderMapper;
     private final OrderItemMapper orderItemMapper;
+    private final MeterRegistry meterRegistry;
 
     @Override
-    public void placeOrder(Authentication authentication,
-                           ShippingAddressRequestDto shippingAddress) {
-        User user = getUser(authentication);
-        Order order = createOrder(authentication, shippingAddress);
-        ShoppingCart shoppingCart = shoppingCartRepository.findShoppingCartByUserId(user.getId())
-                .orElseThrow(() -> new EntityNotFoundException("Can't find shopping cart "
-                        + "by user id " + user.getId()));
-        Set<OrderItem> orderItems = shoppingCart.getCartItems().stream()
-                .map(cartItem -> {
-                    OrderItem orderItem = new OrderItem();
-                    orderItem.setBook(cartItem.getBook());
-                    orderItem.setQuantity(cartItem.getQuantity());
-                    orderItem.setPrice(cartItem.getBook().getPrice());
-                    orderItem.setOrder(order);
-                    return orderItemRepository.save(orderItem);
-                })
-                .collect(Collectors.toSet());
-        shoppingCartRepository.delete(shoppingCart);
+    @Transactional
+    public OrderResponseDto placeOrder(Authentication authentication,
+                                       ShippingAddressRequestDto shippingAddress) {
+        ShoppingCart shoppingCart = recordPhase("load", () -> {
+            Long userId = getUserId(authentication);
+            return shoppingCartRepository.findShoppingCartByUserId(userId)
+                    .orElseThrow(() -> new EntityNotFoundException("Can't find shopping cart "
+                            + "by user id " + userId));
+        });
+        Order order = recordPhase("build", () -> createOrder(shoppingCart, shippingAddress));
+        recordPhase("persist", () -> orderRepository.saveAndFlush(order));
+        recordPhase("clear-cart", () -> {
+            shoppingCartRepository.delete(shoppingCart);
+            shoppingCartRepository.flush();
+            shoppingCartService.evictCart(shoppingCart.getUser().getId());
+            return shoppingCart;
+        });
+        return orderMapper.toResponseDto(order);
     }
 
     @Override
     public List<OrderResponseDto> getAllOrders(Authentication authentication,
                                                Pageable pageable) {
-        User user = getUser(authentication);
-        Page<Order> allOrders = orderRepository.findAllByUserId(user.getId(), pageable);
+        Page<Order> allOrders = orderRepository.findAllByUserId(getUserId(authentication),
+                pageable);
         return allOrders.stream()
                 .map(orderMapper::toResponseDto)
                 .toList();
@@ -72,10 +76,10 @@ public class OrderServiceImpl implements OrderService {
     public List<OrderItemResponseDto> getAllOrderItems(Authentication authentication,
                                                        Long orderId,
                                                        Pageable pageable) {
-        User user = getUser(authentication);
-        Order order = orderRepository.findByUserIdAndId(user.getId(), orderId)
+        Long userId = getUserId(authentication);
+        Order order = orderRepository.findByUserIdAndId(userId, orderId)
                 .orElseThrow(() -> new EntityNotFoundException("Can't find order by order id "
-                        + orderId + " and user id " + user.getId()));
+                        + orderId + " and user id " + userId));
         return order.getOrderItems().stream()
                 .map(orderItemMapper::toResponseDto)
                 .toList();
@@ -95,9 +99,9 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional
     public OrderResponseDto updateOrderStatus(Authentication authentication, Long orderId,
                                               OrderStatusDto statusDto) {
-        User user = getUser(authentication);
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new EntityNotFoundException("Can't find order by id "
                         + orderId));
@@ -105,28 +109,37 @@ public class OrderServiceImpl implements OrderService {
         return orderMapper.toDto(orderRepository.save(order));
     }
 
-    private User getUser(Authentication authentication) {
-        String email = authentication.getName();
-        return userRepository.findByEmail(email).orElseThrow(
-                () -> new EntityNotFoundException("Can not find user by email" + email));
+    private Long getUserId(Authentication authentication) {
+        return userIdentityService.getIdentity(authentication).id();
     }
 
-    private Order createOrder(Authentication authentication,
-                            ShippingAddressRequestDto shippingAddress) {
-        User user = getUser(authentication);
-        ShoppingCart shoppingCart = shoppingCartRepository.findShoppingCartByUserId(user.getId())
-                .orElseThrow(() -> new EntityNotFoundException("Can't find shopping cart "
-                        + "by user id " + user.getId()));
-        double total = shoppingCart.getCartItems().stream()
-                .mapToDouble(cartItem -> (double) cartItem.getQuantity()
-                        * cartItem.getBook().getPrice().doubleValue())
-                .sum();
+    private Order createOrder(ShoppingCart shoppingCart,
+                              ShippingAddressRequestDto shippingAddress) {
         Order order = new Order();
-        order.setUser(user);
+        order.setUser(shoppingCart.getUser());
         order.setShippingAddress(shippingAddress.getShippingAddress());
         order.setOrderDate(LocalDateTime.now());
         order.setStatus(Order.Status.NEW);
-        order.setTotal(BigDecimal.valueOf(total));
-        return orderRepository.save(order);
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItem cartItem : shoppingCart.getCartItems()) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setBook(cartItem.getBook());
+            orderItem.setQuantity(cartItem.getQuantity());
+            orderItem.setPrice(cartItem.getBook().getPrice());
+            orderItem.setOrder(order);
+            order.getOrderItems().add(orderItem);
+            total = total.add(orderItem.getPrice()
+                    .multiply(BigDecimal.valueOf(orderItem.getQuantity())));
+        }
+        order.setTotal(total);
+        return order;
+    }
+
+    private <T> T recordPhase(String phase, Supplier<T> step) {
+        return Timer.builder(CHECKOUT_METRIC)
+                .tag("phase", phase)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(step);
     }
 }
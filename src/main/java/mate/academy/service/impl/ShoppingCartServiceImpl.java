@@ -1,103 +1,248 @@
 package mate.academy.service.impl;
 
-import java.util.Optional;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mate.academy.dto.cart.CartBatchRequestDto;
+import mate.academy.dto.cart.CartSummaryDto;
 import mate.academy.dto.cart.ShoppingCartDto;
 import mate.academy.dto.cartitem.CartItemQuantityRequestDto;
 import mate.academy.dto.cartitem.CartItemRequestDto;
 import mate.academy.exception.EntityNotFoundException;
 import mate.academy.mapper.CartItemMapper;
-import mate.academy.mapper.ShoppingCartMapper;
-import mate.academy.model.Book;
 import mate.academy.model.CartItem;
 import mate.academy.model.ShoppingCart;
-import mate.academy.model.User;
+import mate.academy.repository.EntityIdAllocator;
 import mate.academy.repository.book.BookRepository;
+import mate.academy.repository.cart.CartItemView;
 import mate.academy.repository.cart.ShoppingCartRepository;
 import mate.academy.repository.cartitem.CartItemRepository;
-import mate.academy.repository.user.UserRepository;
 import mate.academy.service.ShoppingCartService;
+import mate.academy.service.UserIdentityService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "cart.store", havingValue = "jdbc", matchIfMissing = true)
 public class ShoppingCartServiceImpl implements ShoppingCartService {
+    private static final String INSERT_CART_SQL =
+            "INSERT INTO shopping_carts (id, user_id, is_deleted) VALUES (?, ?, FALSE)";
+    private static final String SELECT_CART_ID_SQL =
+            "SELECT id FROM shopping_carts WHERE user_id = ? AND is_deleted = FALSE FOR UPDATE";
+    private static final String BOOK_PRICE_SQL = "(SELECT price FROM books WHERE id = ?)";
+    private static final String UPSERT_ITEM_SQL = "INSERT INTO cart_items "
+            + "(id, shopping_cart_id, book_id, quantity, price, is_deleted) "
+            + "VALUES (?, ?, ?, ?, " + BOOK_PRICE_SQL + ", FALSE) "
+            + "ON DUPLICATE KEY UPDATE quantity = CASE WHEN is_deleted THEN ? "
+            + "ELSE quantity + ? END, price = CASE WHEN is_deleted THEN " + BOOK_PRICE_SQL
+            + " ELSE price END, is_deleted = FALSE";
+    private static final String UPDATE_ITEM_SQL =
+            "UPDATE cart_items SET quantity = ? WHERE id = ?";
+    private static final String DELETE_ITEM_SQL =
+            "UPDATE cart_items SET is_deleted = TRUE WHERE id = ?";
     private final ShoppingCartRepository shoppingCartRepository;
-    private final ShoppingCartMapper shoppingCartMapper;
+    private final CartItemMapper cartItemMapper;
     private final BookRepository bookRepository;
     private final CartItemRepository cartItemRepository;
-    private final CartItemMapper cartItemMapper;
-    private final UserRepository userRepository;
+    private final EntityIdAllocator entityIdAllocator;
+    private final UserIdentityService userIdentityService;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
     @Override
+    @Transactional
     public void addItemToCart(Authentication authentication,
                               CartItemRequestDto cartItemRequestDto) {
-        User user = getUser(authentication);
-        ShoppingCart shoppingCart = shoppingCartRepository.findShoppingCartByUserId(user.getId())
-                .orElseGet(() -> registerNewShoppingCart(user));
-
-        Optional<CartItem> existingCartItem = shoppingCart.getCartItems().stream()
-                .filter(item -> item.getBook().getId().equals(cartItemRequestDto.getBookId()))
-                .findFirst();
-        CartItem cartItemToUpdate;
-        if (existingCartItem.isPresent()) {
-            cartItemToUpdate = existingCartItem.get();
-            cartItemToUpdate.setQuantity(cartItemRequestDto.getQuantity()
-                    + cartItemToUpdate.getQuantity());
-        } else {
-            cartItemToUpdate = createNewCartItem(cartItemRequestDto, shoppingCart);
+        Long userId = getUserId(authentication);
+        Long bookId = cartItemRequestDto.getBookId();
+        int quantity = cartItemRequestDto.getQuantity();
+        if (shoppingCartRepository.addToTotalsByUserId(userId, bookId, quantity) == 0) {
+            if (!bookRepository.existsById(bookId)) {
+                throw new EntityNotFoundException("Can not find book with id: " + bookId);
+            }
+            insertShoppingCart(userId);
+            if (shoppingCartRepository.addToTotalsByUserId(userId, bookId, quantity) == 0) {
+                throw new EntityNotFoundException("Can not find book with id: " + bookId);
+            }
         }
-        cartItemRepository.save(cartItemToUpdate);
+        cartItemRepository.upsertByUserId(entityIdAllocator.allocate(CartItem.class, 1).get(0),
+                userId, bookId, quantity);
     }
 
     @Override
     public ShoppingCartDto getAllCartItems(Authentication authentication) {
-        User user = getUser(authentication);
-        ShoppingCart shoppingCart = shoppingCartRepository.findShoppingCartByUserId(user.getId())
-                .orElseGet(() -> registerNewShoppingCart(user));
-        return shoppingCartMapper.toDto(shoppingCart);
+        Long userId = getUserId(authentication);
+        return toDto(userId, shoppingCartRepository.findCartItemViewsByUserId(userId));
+    }
+
+    @Override
+    public CartSummaryDto getSummary(Authentication authentication) {
+        Long userId = getUserId(authentication);
+        return shoppingCartRepository.findSummaryByUserId(userId)
+                .orElseGet(() -> CartSummaryDto.empty(userId));
     }
 
     @Override
+    @Transactional
     public void updateBookQuantity(Authentication authentication,
                                    Long cartItemId,
                                    CartItemQuantityRequestDto qtyRequestDto) {
-        User user = getUser(authentication);
-        ShoppingCart shoppingCart = shoppingCartRepository.findShoppingCartByUserId(user.getId())
-                .orElseThrow(() -> new EntityNotFoundException("Can't find shopping cart by "
-                        + "user id " + user.getId()));
-
-        CartItem cartItem = cartItemRepository.findByIdAndShoppingCartId(cartItemId,
-                        shoppingCart.getId())
-                .orElseThrow(() -> new EntityNotFoundException("Can't find cart item "
-                        + "by cart item id " + cartItemId));
-        cartItem.setQuantity(qtyRequestDto.getQuantity());
-        cartItemRepository.save(cartItem);
-    }
-
-    private ShoppingCart registerNewShoppingCart(User user) {
-        ShoppingCart shoppingCart = new ShoppingCart();
-        shoppingCart.setUser(user);
-        return shoppingCartRepository.save(shoppingCart);
-    }
-
-    private User getUser(Authentication authentication) {
-        String email = authentication.getName();
-        return userRepository.findByEmail(email).orElseThrow(
-                () -> new EntityNotFoundException("Can not find user by email" + email));
-    }
-
-    private CartItem createNewCartItem(CartItemRequestDto cartItemRequestDto,
-                                       ShoppingCart shoppingCart) {
-        Book bookFromDb = bookRepository
-                .findById(cartItemRequestDto.getBookId())
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Can not find book with id: "
-                                + cartItemRequestDto.getBookId()));
-        CartItem cartItem = cartItemMapper.toEntity(cartItemRequestDto);
-        cartItem.setBook(bookFromDb);
-        cartItem.setShoppingCart(shoppingCart);
-        return cartItem;
+        Long userId = getUserId(authentication);
+        if (shoppingCartRepository.setQuantityInTotalsByUserId(userId, cartItemId,
+                qtyRequestDto.getQuantity()) == 0) {
+            throw new EntityNotFoundException("Can't find cart item by cart item id "
+                    + cartItemId);
+        }
+        jdbcTemplate.update(UPDATE_ITEM_SQL, qtyRequestDto.getQuantity(), cartItemId);
+    }
+
+    @Override
+    @Transactional
+    public void removeCartItem(Authentication authentication, Long cartItemId) {
+        Long userId = getUserId(authentication);
+        if (shoppingCartRepository.removeFromTotalsByUserId(userId, cartItemId) > 0) {
+            cartItemRepository.deleteByIdAndShoppingCartUserId(cartItemId, userId);
+        }
+    }
+
+    @Override
+    @Transactional
+    public ShoppingCartDto updateCart(Authentication authentication,
+                                      CartBatchRequestDto cartBatchRequestDto) {
+        Long userId = getUserId(authentication);
+        Map<Long, Integer> additions = new LinkedHashMap<>();
+        cartBatchRequestDto.getAdd().forEach(item ->
+                additions.merge(item.getBookId(), item.getQuantity(), Integer::sum));
+        checkBooksExist(additions.keySet());
+        Long cartId = shoppingCartRepository.findIdByUserId(userId)
+                .orElseGet(() -> createShoppingCart(userId));
+        checkCartItemsExist(cartId, cartBatchRequestDto);
+
+        Iterator<Long> cartItemIds = entityIdAllocator
+                .allocate(CartItem.class, additions.size()).iterator();
+        List<Map<String, Object>> additionTotals = new ArrayList<>();
+        List<Object[]> upserts = new ArrayList<>();
+        additions.forEach((bookId, quantity) -> {
+            additionTotals.add(Map.of("cartId", cartId, "bookId", bookId, "quantity", quantity));
+            upserts.add(new Object[]{cartItemIds.next(), cartId, bookId, quantity, bookId,
+                    quantity, quantity, bookId});
+        });
+        List<Map<String, Object>> updateTotals = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        cartBatchRequestDto.getUpdate().forEach((cartItemId, qty) -> {
+            updateTotals.add(Map.of("cartId", cartId, "id", cartItemId,
+                    "quantity", qty.getQuantity()));
+            updates.add(new Object[]{qty.getQuantity(), cartItemId});
+        });
+        List<Map<String, Object>> removeTotals = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        cartBatchRequestDto.getRemove().forEach(cartItemId -> {
+            removeTotals.add(Map.of("cartId", cartId, "id", cartItemId));
+            deletes.add(new Object[]{cartItemId});
+        });
+        batchUpdateTotals(ShoppingCartRepository.ADD_TO_TOTALS_SQL, additionTotals);
+        batchUpdate(UPSERT_ITEM_SQL, upserts);
+        batchUpdateTotals(ShoppingCartRepository.SET_QUANTITY_IN_TOTALS_SQL, updateTotals);
+        batchUpdate(UPDATE_ITEM_SQL, updates);
+        batchUpdateTotals(ShoppingCartRepository.REMOVE_FROM_TOTALS_SQL, removeTotals);
+        batchUpdate(DELETE_ITEM_SQL, deletes);
+        return toDto(userId, shoppingCartRepository.findCartItemViewsByUserId(userId));
+    }
+
+    @Override
+    public void flushCart(Authentication authentication) {
+    }
+
+    @Override
+    public void evictCart(Long userId) {
+    }
+
+    private ShoppingCartDto toDto(Long userId, List<CartItemView> cartItemViews) {
+        ShoppingCartDto shoppingCartDto = new ShoppingCartDto();
+        shoppingCartDto.setUserId(userId);
+        shoppingCartDto.setSubtotal(BigDecimal.ZERO);
+        shoppingCartDto.setCartItems(new LinkedHashSet<>());
+        for (CartItemView cartItemView : cartItemViews) {
+            shoppingCartDto.setId(cartItemView.shoppingCartId());
+            shoppingCartDto.setItemCount(cartItemView.itemCount());
+            shoppingCartDto.setTotalQuantity(cartItemView.totalQuantity());
+            shoppingCartDto.setSubtotal(cartItemView.subtotal());
+            if (cartItemView.id() != null) {
+                shoppingCartDto.getCartItems().add(cartItemMapper.toResponseDto(cartItemView));
+            }
+        }
+        return shoppingCartDto;
+    }
+
+    private void insertShoppingCart(Long userId) {
+        Long cartId = entityIdAllocator.allocate(ShoppingCart.class, 1).get(0);
+        try {
+            jdbcTemplate.update(INSERT_CART_SQL, cartId, userId);
+        } catch (DuplicateKeyException e) {
+            log.debug("Shopping cart of user {} was created by a concurrent request", userId);
+        }
+    }
+
+    private Long createShoppingCart(Long userId) {
+        insertShoppingCart(userId);
+        return jdbcTemplate.queryForObject(SELECT_CART_ID_SQL, Long.class, userId);
+    }
+
+    private void checkBooksExist(Set<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        Set<Long> missingIds = new LinkedHashSet<>(bookIds);
+        bookRepository.findSummariesByIdIn(bookIds)
+                .forEach(book -> missingIds.remove(book.getId()));
+        if (!missingIds.isEmpty()) {
+            throw new EntityNotFoundException("Can not find books with ids: " + missingIds);
+        }
+    }
+
+    private void checkCartItemsExist(Long cartId, CartBatchRequestDto cartBatchRequestDto) {
+        Set<Long> cartItemIds = new LinkedHashSet<>(cartBatchRequestDto.getUpdate().keySet());
+        cartItemIds.addAll(cartBatchRequestDto.getRemove());
+        if (cartItemIds.isEmpty()) {
+            return;
+        }
+        cartItemRepository.findIdsByShoppingCartIdAndIdIn(cartId, cartItemIds)
+                .forEach(cartItemIds::remove);
+        if (!cartItemIds.isEmpty()) {
+            throw new EntityNotFoundException("Can't find cart items by cart item ids "
+                    + cartItemIds);
+        }
+    }
+
+    private void batchUpdate(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    private void batchUpdateTotals(String sql, List<Map<String, Object>> rows) {
+        if (!rows.isEmpty()) {
+            namedParameterJdbcTemplate.batchUpdate(sql + "AND s.id = :cartId",
+                    SqlParameterSourceUtils.createBatch(rows));
+        }
+    }
+
+    private Long getUserId(Authentication authentication) {
+        return userIdentityService.getIdentity(authentication).id();
     }
 }
@@ -0,0 +1,101 @@
+package mate.academy.service.impl;
+
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import mate.academy.config.CacheConfig;
+import mate.academy.dto.user.UserIdentity;
+import mate.academy.exception.EntityNotFoundException;
+import mate.academy.model.User;
+import mate.academy.repository.user.UserRepository;
+import mate.academy.security.AuthenticatedUser;
+import mate.academy.service.UserIdentityService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+@Service
+@RequiredArgsConstructor
+public class UserIdentityServiceImpl implements UserIdentityService {
+    private static final String REQUEST_ATTRIBUTE = UserIdentity.class.getName();
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+
+    @Override
+    public UserIdentity getIdentity(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return new UserIdentity(principal.id(), principal.email(),
+                    authentication.getAuthorities().stream()
+                            .map(GrantedAuthority::getAuthority)
+                            .collect(Collectors.toUnmodifiableSet()));
+        }
+        if (authentication.getPrincipal() instanceof User user) {
+            return UserIdentity.of(user);
+        }
+        String email = authentication.getName();
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return getIdentity(email);
+        }
+        Object memo = requestAttributes.getAttribute(REQUEST_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (memo instanceof UserIdentity identity && identity.email().equals(email)) {
+            return identity;
+        }
+        UserIdentity identity = getIdentity(email);
+        requestAttributes.setAttribute(REQUEST_ATTRIBUTE, identity,
+                RequestAttributes.SCOPE_REQUEST);
+        return identity;
+    }
+
+    @Override
+    public UserIdentity getIdentity(String email) {
+        Cache cache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        UserIdentity cached = cache == null ? null : cache.get(email, UserIdentity.class);
+        if (cached != null) {
+            return cached;
+        }
+        UserIdentity identity = userRepository.findByEmail(email)
+                .map(UserIdentity::of)
+                .orElseThrow(() -> new EntityNotFoundException("Can not find user by email"
+                        + email));
+        if (cache != null) {
+            cache.put(email, identity);
+        }
+        return identity;
+    }
+
+    @Override
+    public void evict(String email) {
+        afterCommit(cache -> cache.evict(email));
+    }
+
+    @Override
+    public void evictAll() {
+        afterCommit(Cache::clear);
+    }
+
+    private void afterCommit(Consumer<Cache> eviction) {
+        Cache cache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.accept(cache);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        eviction.accept(cache);
+                    }
+                });
+    }
+}
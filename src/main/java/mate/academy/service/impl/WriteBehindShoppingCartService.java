@@ -0,0 +1,700 @@
+package mate.academy.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import mate.academy.dto.book.BookDto;
+import mate.academy.dto.cart.CartBatchRequestDto;
+import mate.academy.dto.cart.CartSummaryDto;
+import mate.academy.dto.cart.ShoppingCartDto;
+import mate.academy.dto.cartitem.CartItemQuantityRequestDto;
+import mate.academy.dto.cartitem.CartItemRequestDto;
+import mate.academy.dto.cartitem.CartItemResponseDto;
+import mate.academy.event.BooksChangedEvent;
+import mate.academy.exception.EntityNotFoundException;
+import mate.academy.model.CartItem;
+import mate.academy.model.ShoppingCart;
+import mate.academy.repository.EntityIdAllocator;
+import mate.academy.repository.book.BookRepository;
+import mate.academy.repository.book.BookSummary;
+import mate.academy.repository.cart.CartItemView;
+import mate.academy.repository.cart.ShoppingCartRepository;
+import mate.academy.repository.cartitem.CartItemRepository;
+import mate.academy.repository.cartitem.DeletedCartItem;
+import mate.academy.service.BookService;
+import mate.academy.service.ShoppingCartService;
+import mate.academy.service.UserIdentityService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "cart.store", havingValue = "write-behind")
+public class WriteBehindShoppingCartService implements ShoppingCartService, DisposableBean {
+    private static final String INSERT_CART_SQL =
+            "INSERT INTO shopping_carts (id, user_id, is_deleted) VALUES (?, ?, FALSE)";
+    private static final String INSERT_ITEM_SQL = "INSERT INTO cart_items "
+            + "(id, shopping_cart_id, book_id, quantity, price, is_deleted) "
+            + "VALUES (?, ?, ?, ?, ?, FALSE) "
+            + "ON DUPLICATE KEY UPDATE quantity = ?, price = ?, is_deleted = FALSE";
+    private static final String UPDATE_ITEM_SQL = "UPDATE cart_items "
+            + "SET quantity = ?, price = ?, is_deleted = FALSE "
+            + "WHERE shopping_cart_id = ? AND book_id = ?";
+    private static final String DELETE_ITEM_SQL = "UPDATE cart_items SET is_deleted = TRUE "
+            + "WHERE shopping_cart_id = ? AND book_id = ?";
+    private static final String UPDATE_TOTALS_SQL = "UPDATE shopping_carts "
+            + "SET item_count = ?, total_quantity = ?, subtotal = ? WHERE id = ?";
+    private static final String ROWS_METRIC = "cart.write_behind.rows";
+    private static final String FLUSH_METRIC = "cart.write_behind.flush";
+
+    private final UserIdentityService userIdentityService;
+    private final ShoppingCartRepository shoppingCartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final BookService bookService;
+    private final BookRepository bookRepository;
+    private final EntityIdAllocator entityIdAllocator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, CartState> carts = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyUsers = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantLock[] stripes;
+    private final Timer flushLag;
+    private final Counter flushFailures;
+    private final int batchSize;
+    private final int maxDirtyCarts;
+    private final long idleTimeoutNanos;
+    private final boolean flushOnShutdown;
+
+    public WriteBehindShoppingCartService(
+            UserIdentityService userIdentityService,
+            ShoppingCartRepository shoppingCartRepository,
+            CartItemRepository cartItemRepository,
+            BookService bookService,
+            BookRepository bookRepository,
+            EntityIdAllocator entityIdAllocator,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${cart.write-behind.lock-stripes:256}") int lockStripes,
+            @Value("${cart.write-behind.batch-size:500}") int batchSize,
+            @Value("${cart.write-behind.max-dirty-carts:10000}") int maxDirtyCarts,
+            @Value("${cart.write-behind.idle-timeout:10m}") Duration idleTimeout,
+            @Value("${cart.write-behind.flush-on-shutdown:true}") boolean flushOnShutdown) {
+        this.userIdentityService = userIdentityService;
+        this.shoppingCartRepository = shoppingCartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.bookService = bookService;
+        this.bookRepository = bookRepository;
+        this.entityIdAllocator = entityIdAllocator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxDirtyCarts = maxDirtyCarts;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.flushOnShutdown = flushOnShutdown;
+        stripes = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        flushLag = Timer.builder("cart.write_behind.flush.lag")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        flushFailures = meterRegistry.counter("cart.write_behind.flush.failures");
+        meterRegistry.gaugeCollectionSize("cart.write_behind.dirty_carts", List.of(),
+                dirtyUsers);
+        meterRegistry.gaugeMapSize("cart.write_behind.carts", List.of(), carts);
+    }
+
+    @Override
+    public void addItemToCart(Authentication authentication,
+                              CartItemRequestDto cartItemRequestDto) {
+        Long userId = getUserId(authentication);
+        Long bookId = cartItemRequestDto.getBookId();
+        boolean added = withCart(userId, cart -> {
+            Item item = cart.items.get(bookId);
+            if (item != null && !item.deleted) {
+                addQuantity(item, cartItemRequestDto.getQuantity());
+            }
+            return item != null && !item.deleted;
+        });
+        if (!added) {
+            BookDto book = bookService.findById(bookId);
+            Long cartItemId = entityIdAllocator.allocate(CartItem.class, 1).get(0);
+            withCart(userId, cart -> addItem(cart, cartItemId, bookId, book.getTitle(),
+                    book.getPrice(), cartItemRequestDto.getQuantity()));
+        }
+        applyBackpressure(userId);
+    }
+
+    @Override
+    public ShoppingCartDto getAllCartItems(Authentication authentication) {
+        return withCart(getUserId(authentication), this::toDto);
+    }
+
+    @Override
+    public CartSummaryDto getSummary(Authentication authentication) {
+        Long userId = getUserId(authentication);
+        ReentrantLock stripe = stripe(userId);
+        stripe.lock();
+        try {
+            CartState cart = carts.get(userId);
+            if (cart != null) {
+                cart.lastAccess = System.nanoTime();
+                return cart.summary();
+            }
+        } finally {
+            stripe.unlock();
+        }
+        return shoppingCartRepository.findSummaryByUserId(userId)
+                .orElseGet(() -> CartSummaryDto.empty(userId));
+    }
+
+    @Override
+    public void updateBookQuantity(Authentication authentication,
+                                   Long cartItemId,
+                                   CartItemQuantityRequestDto qtyRequestDto) {
+        Long userId = getUserId(authentication);
+        withCart(userId, cart -> {
+            Item item = cart.findItem(cartItemId);
+            if (item == null) {
+                throw new EntityNotFoundException("Can't find cart item by cart item id "
+                        + cartItemId);
+            }
+            item.setQuantity(qtyRequestDto.getQuantity());
+            return item;
+        });
+        applyBackpressure(userId);
+    }
+
+    @Override
+    public void removeCartItem(Authentication authentication, Long cartItemId) {
+        Long userId = getUserId(authentication);
+        withCart(userId, cart -> removeItem(cart, cart.findItem(cartItemId)));
+        applyBackpressure(userId);
+    }
+
+    @Override
+    public ShoppingCartDto updateCart(Authentication authentication,
+                                      CartBatchRequestDto cartBatchRequestDto) {
+        Long userId = getUserId(authentication);
+        Map<Long, Integer> additions = new LinkedHashMap<>();
+        cartBatchRequestDto.getAdd().forEach(item ->
+                additions.merge(item.getBookId(), item.getQuantity(), Integer::sum));
+        Map<Long, BookSummary> books = findBooks(additions.keySet());
+        Iterator<Long> cartItemIds = entityIdAllocator
+                .allocate(CartItem.class, additions.size()).iterator();
+        ShoppingCartDto shoppingCartDto = withCart(userId, cart -> {
+            Set<Long> missingIds = new LinkedHashSet<>(cartBatchRequestDto.getUpdate().keySet());
+            missingIds.addAll(cartBatchRequestDto.getRemove());
+            missingIds.removeIf(cartItemId -> cart.findItem(cartItemId) != null);
+            if (!missingIds.isEmpty()) {
+                throw new EntityNotFoundException("Can't find cart items by cart item ids "
+                        + missingIds);
+            }
+            additions.forEach((bookId, quantity) -> addItem(cart, cartItemIds.next(), bookId,
+                    books.get(bookId).getTitle(), books.get(bookId).getPrice(), quantity));
+            cartBatchRequestDto.getUpdate().forEach((cartItemId, qty) ->
+                    cart.findItem(cartItemId).setQuantity(qty.getQuantity()));
+            cartBatchRequestDto.getRemove().forEach(cartItemId ->
+                    removeItem(cart, cart.findItem(cartItemId)));
+            return toDto(cart);
+        });
+        applyBackpressure(userId);
+        return shoppingCartDto;
+    }
+
+    @Override
+    public void flushCart(Authentication authentication) {
+        flushLock.lock();
+        try {
+            flush(List.of(getUserId(authentication)), true);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void evictCart(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        evict(userId);
+                    }
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${cart.write-behind.flush-interval:PT0.5S}")
+    public void flushPending() {
+        flushLock.lock();
+        try {
+            if (!dirtyUsers.isEmpty()) {
+                flush(new ArrayList<>(dirtyUsers), false);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+        evictIdleCarts();
+    }
+
+    @Override
+    public void destroy() {
+        if (flushOnShutdown && !dirtyUsers.isEmpty()) {
+            flushLock.lock();
+            try {
+                flush(new ArrayList<>(dirtyUsers), true);
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksChanged(BooksChangedEvent event) {
+        if (carts.isEmpty()) {
+            return;
+        }
+        Map<Long, BookSummary> books = bookRepository.findSummariesByIdIn(event.bookIds())
+                .stream()
+                .collect(Collectors.toMap(BookSummary::getId, Function.identity()));
+        Set<Long> bookIds = Set.copyOf(event.bookIds());
+        for (Long userId : carts.keySet()) {
+            ReentrantLock stripe = stripe(userId);
+            stripe.lock();
+            try {
+                CartState cart = carts.get(userId);
+                if (cart == null) {
+                    continue;
+                }
+                for (Item item : cart.items.values()) {
+                    if (bookIds.contains(item.bookId)) {
+                        BookSummary book = books.get(item.bookId);
+                        item.bookTitle = book == null ? item.bookTitle : book.getTitle();
+                        item.bookPrice = book == null ? null : book.getPrice();
+                    }
+                }
+            } finally {
+                stripe.unlock();
+            }
+        }
+    }
+
+    private void flush(List<Long> userIds, boolean rethrow) {
+        List<CartSnapshot> snapshots = new ArrayList<>();
+        for (Long userId : userIds) {
+            ReentrantLock stripe = stripe(userId);
+            stripe.lock();
+            try {
+                dirtyUsers.remove(userId);
+                CartState cart = carts.get(userId);
+                if (cart != null && cart.isDirty()) {
+                    snapshots.add(cart.snapshot());
+                }
+            } finally {
+                stripe.unlock();
+            }
+        }
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(snapshots));
+            sample.stop(meterRegistry.timer(FLUSH_METRIC, "outcome", "success"));
+        } catch (RuntimeException e) {
+            sample.stop(meterRegistry.timer(FLUSH_METRIC, "outcome", "failure"));
+            flushFailures.increment();
+            snapshots.forEach(this::restore);
+            if (rethrow) {
+                throw e;
+            }
+            log.warn("Can't flush {} shopping carts, will retry", snapshots.size(), e);
+            return;
+        }
+        long now = System.nanoTime();
+        for (CartSnapshot snapshot : snapshots) {
+            complete(snapshot);
+            flushLag.record(now - snapshot.dirtySince, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void write(List<CartSnapshot> snapshots) {
+        List<Object[]> newCarts = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> totals = new ArrayList<>();
+        for (CartSnapshot snapshot : snapshots) {
+            if (!snapshot.cartPersisted) {
+                newCarts.add(new Object[]{snapshot.cartId, snapshot.userId});
+            }
+            totals.add(new Object[]{snapshot.summary.itemCount(),
+                    snapshot.summary.totalQuantity(), snapshot.summary.subtotal(),
+                    snapshot.cartId});
+            for (ItemSnapshot item : snapshot.items) {
+                if (item.deleted) {
+                    deletes.add(new Object[]{snapshot.cartId, item.bookId});
+                } else if (item.persisted) {
+                    updates.add(new Object[]{item.quantity, item.price, snapshot.cartId,
+                            item.bookId});
+                } else {
+                    inserts.add(new Object[]{item.id, snapshot.cartId, item.bookId,
+                            item.quantity, item.price, item.quantity, item.price});
+                }
+            }
+        }
+        batchUpdate(INSERT_CART_SQL, newCarts, "insert-cart");
+        batchUpdate(INSERT_ITEM_SQL, inserts, "insert");
+        batchUpdate(UPDATE_ITEM_SQL, updates, "update");
+        batchUpdate(DELETE_ITEM_SQL, deletes, "delete");
+        batchUpdate(UPDATE_TOTALS_SQL, totals, "update-cart");
+    }
+
+    private void batchUpdate(String sql, List<Object[]> rows, String operation) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from,
+                    Math.min(rows.size(), from + batchSize)));
+        }
+        meterRegistry.counter(ROWS_METRIC, "operation", operation).increment(rows.size());
+    }
+
+    private void complete(CartSnapshot snapshot) {
+        ReentrantLock stripe = stripe(snapshot.userId);
+        stripe.lock();
+        try {
+            CartState cart = carts.get(snapshot.userId);
+            if (cart == null) {
+                return;
+            }
+            cart.persisted = true;
+            for (ItemSnapshot flushed : snapshot.items) {
+                Item item = cart.items.get(flushed.bookId);
+                if (item == null || !item.id.equals(flushed.id)) {
+                    continue;
+                }
+                item.inFlight = false;
+                item.persisted = item.persisted || !flushed.deleted;
+            }
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private void restore(CartSnapshot snapshot) {
+        ReentrantLock stripe = stripe(snapshot.userId);
+        stripe.lock();
+        try {
+            CartState cart = carts.get(snapshot.userId);
+            if (cart == null) {
+                return;
+            }
+            cart.persisted = cart.persisted && snapshot.cartPersisted;
+            for (ItemSnapshot flushed : snapshot.items) {
+                Item item = cart.items.get(flushed.bookId);
+                if (item == null || !item.id.equals(flushed.id)) {
+                    continue;
+                }
+                item.inFlight = false;
+                item.dirty = true;
+                if (item.deleted && !item.persisted) {
+                    cart.items.remove(flushed.bookId);
+                }
+            }
+            cart.dirtySince = cart.dirtySince == 0 ? snapshot.dirtySince
+                    : Math.min(cart.dirtySince, snapshot.dirtySince);
+            dirtyUsers.add(snapshot.userId);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private void evictIdleCarts() {
+        long now = System.nanoTime();
+        for (Map.Entry<Long, CartState> entry : carts.entrySet()) {
+            if (now - entry.getValue().lastAccess < idleTimeoutNanos) {
+                continue;
+            }
+            ReentrantLock stripe = stripe(entry.getKey());
+            stripe.lock();
+            try {
+                CartState cart = carts.get(entry.getKey());
+                if (cart != null && !cart.isDirty() && now - cart.lastAccess >= idleTimeoutNanos) {
+                    carts.remove(entry.getKey());
+                }
+            } finally {
+                stripe.unlock();
+            }
+        }
+    }
+
+    private void evict(Long userId) {
+        ReentrantLock stripe = stripe(userId);
+        stripe.lock();
+        try {
+            carts.remove(userId);
+            dirtyUsers.remove(userId);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private void applyBackpressure(Long userId) {
+        if (dirtyUsers.size() > maxDirtyCarts) {
+            flushLock.lock();
+            try {
+                flush(List.of(userId), true);
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private Item addItem(CartState cart, Long cartItemId, Long bookId, String bookTitle,
+                         BigDecimal bookPrice, int quantity) {
+        Item item = cart.items.get(bookId);
+        if (item != null) {
+            if (item.deleted) {
+                item.bookTitle = bookTitle;
+                item.bookPrice = bookPrice;
+            }
+            addQuantity(item, quantity);
+            return item;
+        }
+        if (cart.cartId == null) {
+            cart.cartId = entityIdAllocator.allocate(ShoppingCart.class, 1).get(0);
+        }
+        item = new Item(cartItemId, bookId, bookTitle, bookPrice, false);
+        item.setQuantity(quantity);
+        cart.items.put(bookId, item);
+        return item;
+    }
+
+    private void addQuantity(Item item, int quantity) {
+        item.setQuantity(item.deleted ? quantity : item.quantity + quantity);
+        item.deleted = false;
+    }
+
+    private Item removeItem(CartState cart, Item item) {
+        if (item != null && (item.persisted || item.inFlight)) {
+            item.deleted = true;
+            item.dirty = true;
+        } else if (item != null) {
+            cart.items.remove(item.bookId);
+        }
+        return item;
+    }
+
+    private ShoppingCartDto toDto(CartState cart) {
+        Set<CartItemResponseDto> cartItems = new LinkedHashSet<>();
+        for (Item item : cart.items.values()) {
+            if (!item.deleted) {
+                cartItems.add(new CartItemResponseDto()
+                        .setId(item.id)
+                        .setBookId(item.bookId)
+                        .setBookTitle(item.bookTitle)
+                        .setQuantity(item.quantity));
+            }
+        }
+        CartSummaryDto summary = cart.summary();
+        ShoppingCartDto shoppingCartDto = new ShoppingCartDto();
+        shoppingCartDto.setId(cart.cartId);
+        shoppingCartDto.setUserId(cart.userId);
+        shoppingCartDto.setItemCount(summary.itemCount());
+        shoppingCartDto.setTotalQuantity(summary.totalQuantity());
+        shoppingCartDto.setSubtotal(summary.subtotal());
+        shoppingCartDto.setCartItems(cartItems);
+        return shoppingCartDto;
+    }
+
+    private Map<Long, BookSummary> findBooks(Set<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, BookSummary> books = bookRepository.findSummariesByIdIn(bookIds).stream()
+                .collect(Collectors.toMap(BookSummary::getId, Function.identity()));
+        Set<Long> missingIds = new LinkedHashSet<>(bookIds);
+        missingIds.removeAll(books.keySet());
+        if (!missingIds.isEmpty()) {
+            throw new EntityNotFoundException("Can not find books with ids: " + missingIds);
+        }
+        return books;
+    }
+
+    private <T> T withCart(Long userId, Function<CartState, T> action) {
+        ReentrantLock stripe = stripe(userId);
+        stripe.lock();
+        try {
+            CartState cart = carts.computeIfAbsent(userId, this::loadCart);
+            cart.lastAccess = System.nanoTime();
+            T result = action.apply(cart);
+            if (cart.isDirty() && cart.dirtySince == 0) {
+                cart.dirtySince = System.nanoTime();
+            }
+            if (cart.isDirty()) {
+                dirtyUsers.add(userId);
+            }
+            return result;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private CartState loadCart(Long userId) {
+        List<CartItemView> cartItemViews = shoppingCartRepository.findCartItemViewsByUserId(userId);
+        if (cartItemViews.isEmpty()) {
+            return new CartState(userId, null, false);
+        }
+        CartState cart = new CartState(userId, cartItemViews.get(0).shoppingCartId(), true);
+        for (CartItemView cartItemView : cartItemViews) {
+            if (cartItemView.id() != null) {
+                Item item = new Item(cartItemView.id(), cartItemView.bookId(),
+                        cartItemView.bookTitle(), cartItemView.bookPrice(), true);
+                item.quantity = cartItemView.quantity();
+                cart.items.put(item.bookId, item);
+            }
+        }
+        for (DeletedCartItem deletedCartItem
+                : cartItemRepository.findDeletedByShoppingCartId(cart.cartId)) {
+            Item item = new Item(deletedCartItem.getId(), deletedCartItem.getBookId(), null,
+                    null, true);
+            item.deleted = true;
+            cart.items.putIfAbsent(item.bookId, item);
+        }
+        return cart;
+    }
+
+    private ReentrantLock stripe(Long userId) {
+        return stripes[Math.floorMod(userId.hashCode(), stripes.length)];
+    }
+
+    private Long getUserId(Authentication authentication) {
+        return userIdentityService.getIdentity(authentication).id();
+    }
+
+    private static class CartState {
+        private final Long userId;
+        private final Map<Long, Item> items = new LinkedHashMap<>();
+        private Long cartId;
+        private boolean persisted;
+        private long dirtySince;
+        private long lastAccess;
+
+        CartState(Long userId, Long cartId, boolean persisted) {
+            this.userId = userId;
+            this.cartId = cartId;
+            this.persisted = persisted;
+        }
+
+        Item findItem(Long cartItemId) {
+            return items.values().stream()
+                    .filter(item -> item.id.equals(cartItemId) && !item.deleted)
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        boolean isDirty() {
+            return items.values().stream().anyMatch(item -> item.dirty);
+        }
+
+        CartSummaryDto summary() {
+            int itemCount = 0;
+            int totalQuantity = 0;
+            BigDecimal subtotal = BigDecimal.ZERO;
+            for (Item item : items.values()) {
+                if (!item.deleted) {
+                    itemCount++;
+                    totalQuantity += item.quantity;
+                    if (item.bookPrice != null) {
+                        subtotal = subtotal.add(item.bookPrice
+                                .multiply(BigDecimal.valueOf(item.quantity)));
+                    }
+                }
+            }
+            return new CartSummaryDto(cartId, userId, itemCount, totalQuantity, subtotal);
+        }
+
+        CartSnapshot snapshot() {
+            List<ItemSnapshot> dirtyItems = new ArrayList<>();
+            for (Item item : items.values()) {
+                if (item.dirty) {
+                    dirtyItems.add(new ItemSnapshot(item.id, item.bookId, item.quantity,
+                            item.bookPrice == null ? BigDecimal.ZERO : item.bookPrice,
+                            item.persisted, item.deleted));
+                    item.dirty = false;
+                    item.inFlight = true;
+                }
+            }
+            CartSnapshot snapshot = new CartSnapshot(userId, cartId, persisted,
+                    dirtySince == 0 ? System.nanoTime() : dirtySince, dirtyItems, summary());
+            persisted = true;
+            dirtySince = 0;
+            return snapshot;
+        }
+    }
+
+    private static class Item {
+        private final Long id;
+        private final Long bookId;
+        private String bookTitle;
+        private BigDecimal bookPrice;
+        private int quantity;
+        private boolean persisted;
+        private boolean deleted;
+        private boolean dirty;
+        private boolean inFlight;
+
+        Item(Long id, Long bookId, String bookTitle, BigDecimal bookPrice, boolean persisted) {
+            this.id = id;
+            this.bookId = bookId;
+            this.bookTitle = bookTitle;
+            this.bookPrice = bookPrice;
+            this.persisted = persisted;
+        }
+
+        void setQuantity(int quantity) {
+            this.quantity = quantity;
+            this.dirty = true;
+        }
+    }
+
+    private record CartSnapshot(Long userId, Long cartId, boolean cartPersisted,
+                                long dirtySince, List<ItemSnapshot> items,
+                                CartSummaryDto summary) {
+    }
+
+    private record ItemSnapshot(Long id, Long bookId, int quantity, BigDecimal price,
+                                boolean persisted, boolean deleted) {
+    }
+}
@@ -0,0 +1,47 @@
+package mate.academy.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import mate.academy.dto.book.BookSearchParameters;
+import mate.academy.model.Book;
+import mate.academy.repository.book.BookSpecificationBuilder;
+import mate.academy.repository.book.BookSpecificationProviderManager;
+import mate.academy.repository.book.spec.AuthorSpecificationProvider;
+import mate.academy.repository.book.spec.TitleSpecificationProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.jpa.domain.Specification;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BookSpecificationBenchmark {
+    private BookSpecificationBuilder bookSpecificationBuilder;
+    private BookSearchParameters authorsAndTitles;
+    private BookSearchParameters empty;
+
+    @Setup
+    public void setUp() {
+        bookSpecificationBuilder = new BookSpecificationBuilder(
+                new BookSpecificationProviderManager(List.of(new AuthorSpecificationProvider(),
+                        new TitleSpecificationProvider())));
+        authorsAndTitles = new BookSearchParameters(new String[]{"Orwell", "Huxley"},
+                new String[]{"1984", "Brave New World"});
+        empty = new BookSearchParameters(null, null);
+    }
+
+    @Benchmark
+    public Specification<Book> buildAuthorsAndTitles() {
+        return bookSpecificationBuilder.build(authorsAndTitles);
+    }
+
+    @Benchmark
+    public Specification<Book> buildEmpty() {
+        return bookSpecificationBuilder.build(empty);
+    }
+}
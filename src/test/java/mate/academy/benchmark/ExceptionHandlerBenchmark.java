@@ -0,0 +1,57 @@
+package mate.academy.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import mate.academy.controller.AuthenticationController;
+import mate.academy.dto.user.UserRegistrationRequest;
+import mate.academy.exception.CustomGlobalExceptionHandler;
+import mate.academy.exception.EntityNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ExceptionHandlerBenchmark {
+    private CustomGlobalExceptionHandler exceptionHandler;
+    private WebRequest request;
+    private EntityNotFoundException notFound;
+    private MethodArgumentNotValidException notValid;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        exceptionHandler = new CustomGlobalExceptionHandler();
+        request = new ServletWebRequest(new MockHttpServletRequest("POST", "/api/auth/register"));
+        notFound = new EntityNotFoundException("Can't find book by id 1");
+        UserRegistrationRequest target = new UserRegistrationRequest();
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(target,
+                "userRegistrationRequest");
+        bindingResult.rejectValue("email", "NotBlank", "must not be blank");
+        bindingResult.rejectValue("password", "Size", "size must be between 4 and 100");
+        bindingResult.reject("FieldMatch", "Passwords must match");
+        notValid = new MethodArgumentNotValidException(new MethodParameter(
+                AuthenticationController.class.getMethod("register",
+                        UserRegistrationRequest.class), 0), bindingResult);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> entityNotFound() {
+        return exceptionHandler.handleEntityNotFoundException(notFound, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> methodArgumentNotValid() throws Exception {
+        return exceptionHandler.handleException(notValid, request);
+    }
+}
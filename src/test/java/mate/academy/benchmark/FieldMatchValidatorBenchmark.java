@@ -0,0 +1,50 @@
+package mate.academy.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import mate.academy.dto.user.UserRegistrationRequest;
+import mate.academy.lib.FieldMatch;
+import mate.academy.lib.FieldMatchValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FieldMatchValidatorBenchmark {
+    private FieldMatchValidator fieldMatchValidator;
+    private UserRegistrationRequest matching;
+    private UserRegistrationRequest mismatching;
+
+    @Setup
+    public void setUp() {
+        fieldMatchValidator = new FieldMatchValidator();
+        fieldMatchValidator.initialize(UserRegistrationRequest.class
+                .getAnnotation(FieldMatch.class));
+        matching = prepareRequest("securePassword123");
+        mismatching = prepareRequest("anotherPassword123");
+    }
+
+    @Benchmark
+    public boolean isValidMatching() {
+        return fieldMatchValidator.isValid(matching, null);
+    }
+
+    @Benchmark
+    public boolean isValidMismatching() {
+        return fieldMatchValidator.isValid(mismatching, null);
+    }
+
+    private UserRegistrationRequest prepareRequest(String repeatPassword) {
+        return new UserRegistrationRequest()
+                .setEmail("john@test.com")
+                .setPassword("securePassword123")
+                .setRepeatPassword(repeatPassword)
+                .setFirstName("John")
+                .setLastName("Doe");
+    }
+}
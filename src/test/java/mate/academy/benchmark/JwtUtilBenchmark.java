@@ -0,0 +1,54 @@
+package mate.academy.benchmark;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import mate.academy.model.Role;
+import mate.academy.model.User;
+import mate.academy.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtUtilBenchmark {
+    private static final String SECRET = "perfectlengthsecretkey01234567890909090909090";
+    private static final long EXPIRATION = TimeUnit.HOURS.toMillis(1);
+    private JwtUtil jwtUtil;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 10_000);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", EXPIRATION);
+        Role role = new Role();
+        role.setRoleName(Role.RoleName.USER);
+        user = new User()
+                .setId(1L)
+                .setEmail("john@test.com")
+                .setRoles(Set.of(role));
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean isValidToken() {
+        return jwtUtil.isValidToken(token);
+    }
+
+    @Benchmark
+    public String getUsername() {
+        return jwtUtil.getUsername(token);
+    }
+}
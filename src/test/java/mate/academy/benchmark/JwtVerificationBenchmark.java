@@ -0,0 +1,64 @@
+package mate.academy.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import mate.academy.model.Role;
+import mate.academy.model.User;
+import mate.academy.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtVerificationBenchmark {
+    private static final String SECRET = "perfectlengthsecretkey01234567890909090909090";
+    private static final long EXPIRATION = TimeUnit.HOURS.toMillis(1);
+    private Key key;
+    private JwtParser sharedParser;
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        sharedParser = Jwts.parserBuilder().setSigningKey(key).build();
+        jwtUtil = new JwtUtil(SECRET, 10_000);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", EXPIRATION);
+        Role role = new Role();
+        role.setRoleName(Role.RoleName.USER);
+        token = jwtUtil.generateToken(new User()
+                .setId(1L)
+                .setEmail("john@test.com")
+                .setRoles(Set.of(role)));
+    }
+
+    @Benchmark
+    public String newParserPerCallTwice() {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token)
+                .getBody().getSubject();
+    }
+
+    @Benchmark
+    public Claims sharedParserVerifyOnce() {
+        return sharedParser.parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Claims cachedClaims() {
+        return jwtUtil.getClaims(token);
+    }
+}
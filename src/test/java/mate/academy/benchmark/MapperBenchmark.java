@@ -0,0 +1,105 @@
+package mate.academy.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import mate.academy.dto.book.BookDto;
+import mate.academy.dto.cart.ShoppingCartDto;
+import mate.academy.dto.order.OrderResponseDto;
+import mate.academy.mapper.BookMapper;
+import mate.academy.mapper.OrderMapper;
+import mate.academy.mapper.ShoppingCartMapper;
+import mate.academy.mapper.impl.BookMapperImpl;
+import mate.academy.mapper.impl.CartItemMapperImpl;
+import mate.academy.mapper.impl.OrderItemMapperImpl;
+import mate.academy.mapper.impl.OrderMapperImpl;
+import mate.academy.mapper.impl.ShoppingCartMapperImpl;
+import mate.academy.model.Book;
+import mate.academy.model.CartItem;
+import mate.academy.model.Category;
+import mate.academy.model.Order;
+import mate.academy.model.OrderItem;
+import mate.academy.model.ShoppingCart;
+import mate.academy.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MapperBenchmark {
+    private static final int CATEGORIES = 3;
+    @Param({"1", "20"})
+    private int items;
+    private BookMapper bookMapper;
+    private ShoppingCartMapper shoppingCartMapper;
+    private OrderMapper orderMapper;
+    private Book book;
+    private ShoppingCart shoppingCart;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        bookMapper = new BookMapperImpl();
+        shoppingCartMapper = new ShoppingCartMapperImpl(new CartItemMapperImpl());
+        orderMapper = new OrderMapperImpl(new OrderItemMapperImpl());
+        User user = new User().setId(1L).setEmail("john@test.com");
+        book = prepareBook(1L);
+        Set<CartItem> cartItems = new HashSet<>();
+        Set<OrderItem> orderItems = new HashSet<>();
+        for (long id = 1; id <= items; id++) {
+            Book itemBook = prepareBook(id);
+            cartItems.add(new CartItem().setId(id).setBook(itemBook).setQuantity(2));
+            orderItems.add(new OrderItem().setId(id).setBook(itemBook).setQuantity(2)
+                    .setPrice(itemBook.getPrice()));
+        }
+        shoppingCart = new ShoppingCart().setId(1L).setUser(user).setCartItems(cartItems);
+        order = new Order()
+                .setId(1L)
+                .setUser(user)
+                .setStatus(Order.Status.NEW)
+                .setTotal(BigDecimal.valueOf(100L * items))
+                .setOrderDate(LocalDateTime.now())
+                .setShippingAddress("Kyiv, Khreshchatyk 1")
+                .setOrderItems(orderItems);
+    }
+
+    @Benchmark
+    public BookDto bookToDto() {
+        return bookMapper.toDto(book);
+    }
+
+    @Benchmark
+    public ShoppingCartDto shoppingCartToDto() {
+        return shoppingCartMapper.toDto(shoppingCart);
+    }
+
+    @Benchmark
+    public OrderResponseDto orderToResponseDto() {
+        return orderMapper.toResponseDto(order);
+    }
+
+    private Book prepareBook(Long id) {
+        Set<Category> categories = new HashSet<>();
+        for (long categoryId = 1; categoryId <= CATEGORIES; categoryId++) {
+            categories.add(new Category().setId(categoryId).setName("Category " + categoryId));
+        }
+        return new Book()
+                .setId(id)
+                .setTitle("Book " + id)
+                .setAuthor("Author " + id)
+                .setIsbn("ISBN-" + id)
+                .setPrice(BigDecimal.valueOf(100))
+                .setDescription("Description " + id)
+                .setCoverImage("cover-" + id + ".jpg")
+                .setCategories(categories);
+    }
+}
@@ -63,7 +63,6 @@ public class DatabaseHelper {
 
     public static UserResponseDto prepareExpectedUserResponse(UserRegistrationRequest request) {
         return new UserResponseDto()
-                .setId(3L)
                 .setEmail(request.getEmail())
                 .setFirstName(request.getFirstName())
                 .setLastName(request.getLastName());
@@ -112,7 +111,8 @@ public class DatabaseHelper {
         return new CartItem()
                 .setBook(book)
                 .setId(id)
-                .setQuantity(qty);
+                .setQuantity(qty)
+                .setPrice(book.getPrice());
     }
 
     public static User prepareUser() {
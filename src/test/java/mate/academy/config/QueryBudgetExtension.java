@@ -0,0 +1,57 @@
+package mate.academy.config;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.sql.DataSource;
+import mate.academy.metrics.RequestQueryStats;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+public class QueryBudgetExtension implements BeforeTestExecutionCallback,
+        AfterTestExecutionCallback {
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    public static <T> T withinQueryBudget(int budget, Block<T> block) throws Exception {
+        RequestQueryStats stats = RequestQueryStats.start();
+        try {
+            return block.run();
+        } finally {
+            RequestQueryStats.clear();
+            assertWithinBudget(budget, stats, "Block");
+        }
+    }
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        assertInstanceOf(ProxyDataSource.class, SpringExtension.getApplicationContext(context)
+                .getBean(DataSource.class), "SQL statements are counted only when "
+                + "jdbc.metrics.enabled=true");
+        context.getStore(NAMESPACE).put(context.getUniqueId(), RequestQueryStats.start());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        RequestQueryStats stats = context.getStore(NAMESPACE)
+                .remove(context.getUniqueId(), RequestQueryStats.class);
+        RequestQueryStats.clear();
+        AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), QueryBudget.class)
+                .ifPresent(budget -> assertWithinBudget(budget.value(), stats,
+                        context.getDisplayName()));
+    }
+
+    private static void assertWithinBudget(int budget, RequestQueryStats stats, String name) {
+        assertTrue(stats.getStatements() <= budget, () -> name + " executed "
+                + stats.getStatements() + " SQL statements, the budget is " + budget);
+    }
+
+    @FunctionalInterface
+    public interface Block<T> {
+        T run() throws Exception;
+    }
+}
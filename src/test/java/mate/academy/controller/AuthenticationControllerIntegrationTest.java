@@ -2,7 +2,9 @@ package mate.academy.controller;
 
 import static mate.academy.config.DatabaseHelper.prepareExpectedUserResponse;
 import static mate.academy.config.DatabaseHelper.prepareUserRegistrationRequest;
+import static mate.academy.config.QueryBudgetExtension.withinQueryBudget;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -11,6 +13,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.sql.Connection;
 import javax.sql.DataSource;
 import lombok.SneakyThrows;
+import mate.academy.config.QueryBudget;
 import mate.academy.dto.user.UserLoginRequestDto;
 import mate.academy.dto.user.UserLoginResponseDto;
 import mate.academy.dto.user.UserRegistrationRequest;
@@ -109,6 +112,7 @@ class AuthenticationControllerIntegrationTest {
 
     @Test
     @DisplayName("Register new user")
+    @QueryBudget(6)
     void register_validRequest_Success() throws Exception {
         UserRegistrationRequest request = prepareUserRegistrationRequest(
                 TEST_EMAIL,
@@ -132,7 +136,8 @@ class AuthenticationControllerIntegrationTest {
         String jsonResponse = mvcResult.getResponse().getContentAsString();
         UserResponseDto actual = objectMapper.readValue(jsonResponse, UserResponseDto.class);
 
-        assertEquals(expected, actual);
+        assertTrue(actual.getId() > 0);
+        assertEquals(expected.setId(actual.getId()), actual);
     }
 
     @Test
@@ -144,13 +149,13 @@ class AuthenticationControllerIntegrationTest {
 
         String jsonRequest = objectMapper.writeValueAsString(loginRequestDto);
 
-        MvcResult mvcResult = mockMvc.perform(
+        MvcResult mvcResult = withinQueryBudget(1, () -> mockMvc.perform(
                         post("/api/auth/login")
                                 .content(jsonRequest)
                                 .contentType(MediaType.APPLICATION_JSON)
                 )
                 .andExpect(status().isOk())
-                .andReturn();
+                .andReturn());
 
         String jsonResponse = mvcResult.getResponse().getContentAsString();
 
@@ -1,14 +1,17 @@
 package mate.academy.controller;
 
 import static mate.academy.config.DatabaseHelper.prepareBookDto;
+import static mate.academy.config.QueryBudgetExtension.withinQueryBudget;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -20,7 +23,9 @@ import java.util.List;
 import java.util.Set;
 import javax.sql.DataSource;
 import lombok.SneakyThrows;
+import mate.academy.config.QueryBudget;
 import mate.academy.dto.book.BookDto;
+import mate.academy.dto.book.BookImportResultDto;
 import mate.academy.dto.book.CreateBookRequestDto;
 import mate.academy.exception.EntityNotFoundException;
 import mate.academy.service.BookService;
@@ -106,6 +111,7 @@ class BookControllerIntegrationTest {
     @Test
     @DisplayName("Create a new Book")
     @WithMockUser(username = "admin", password = "test", authorities = {"ADMIN", "USER"})
+    @QueryBudget(3)
     void createBook_validCreateBookRequestDto_Success() throws Exception {
         //Given
         CreateBookRequestDto createBookRequestDto = new CreateBookRequestDto()
@@ -146,6 +152,7 @@ class BookControllerIntegrationTest {
     @Test
     @DisplayName("Verify getAll() represents all books from DB")
     @WithMockUser(username = "user", password = "test", authorities = "USER")
+    @QueryBudget(2)
     void getAll_WithPagination_ShouldReturnPageWithBooks() throws Exception {
         //Given
         List<BookDto> expected = new ArrayList<>();
@@ -192,9 +199,87 @@ class BookControllerIntegrationTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("Verify export() streams every book as NDJSON line")
+    @WithMockUser(username = "admin", password = "test", authorities = "ADMIN")
+    void export_NdjsonFormat_ShouldStreamAllBooks() throws Exception {
+        //When
+        MvcResult asyncResult = mockMvc.perform(get("/api/books/export")
+                        .param("format", "NDJSON"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult mvcResult = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        //Then
+        String[] lines = mvcResult.getResponse().getContentAsString().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(prepareBookDto(), objectMapper.readValue(lines[0], BookDto.class));
+    }
+
+    @Test
+    @DisplayName("Verify importBooks() upserts valid rows and reports rejected ones")
+    @WithMockUser(username = "admin", password = "test", authorities = "ADMIN")
+    void importBooks_NdjsonWithInvalidRow_ShouldImportValidRows() throws Exception {
+        //Given
+        String body = """
+                {"title":"Imported","author":"Author 4","isbn":"ISBN-111111","price":10,\
+                "description":"Imported book","coverImage":"image4.jpg"}
+                {"title":"Book 1 updated","author":"Author 1","isbn":"ISBN-123456",\
+                "price":150,"description":"Description for Book 1","coverImage":"image1.jpg"}
+                {"title":"No price","author":"Author 5","isbn":"ISBN-222222"}
+                """;
+
+        //When
+        MvcResult mvcResult = withinQueryBudget(4, () -> mockMvc.perform(post("/api/books/import")
+                        .param("format", "NDJSON")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn());
+
+        //Then
+        BookImportResultDto actual = objectMapper.readValue(
+                mvcResult.getResponse().getContentAsString(), BookImportResultDto.class);
+        assertEquals(2, actual.getImported());
+        assertEquals(1, actual.getRejected());
+        assertEquals(3, actual.getRejectedRows().get(0).getRow());
+        assertEquals("Book 1 updated", bookService.findById(VALID_ID).getTitle());
+    }
+
+    @Test
+    @DisplayName("Verify importBooks() rejects later rows with an isbn already in the chunk")
+    @WithMockUser(username = "admin", password = "test", authorities = "ADMIN")
+    void importBooks_DuplicateIsbnInChunk_ShouldRejectLaterRow() throws Exception {
+        //Given
+        String body = """
+                {"title":"Imported","author":"Author 4","isbn":"ISBN-111111","price":10,\
+                "description":"Imported book","coverImage":"image4.jpg"}
+                {"title":"Imported again","author":"Author 4","isbn":"ISBN-111111","price":20,\
+                "description":"Imported book","coverImage":"image4.jpg"}
+                """;
+
+        //When
+        MvcResult mvcResult = mockMvc.perform(post("/api/books/import")
+                        .param("format", "NDJSON")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        //Then
+        BookImportResultDto actual = objectMapper.readValue(
+                mvcResult.getResponse().getContentAsString(), BookImportResultDto.class);
+        assertEquals(1, actual.getImported());
+        assertEquals(1, actual.getRejected());
+        assertEquals(2, actual.getRejectedRows().get(0).getRow());
+        assertEquals(List.of("Duplicate isbn ISBN-111111 of row 1"),
+                actual.getRejectedRows().get(0).getErrors());
+    }
+
     @Test
     @DisplayName("Verify getBookById() with valid Id returns book from DB")
     @WithMockUser(username = "user", password = "test", authorities = {"USER", "ADMIN"})
+    @QueryBudget(1)
     void getBookById_validId_shouldReturnBook() throws Exception {
         //Given
         BookDto expected = prepareBookDto();
@@ -217,8 +302,8 @@ class BookControllerIntegrationTest {
     @DisplayName("Verify getBookById() with invalid Id throws exception")
     @WithMockUser(username = "user", password = "test", authorities = {"USER", "ADMIN"})
     void getBookById_invalidId_shouldReturnException() throws Exception {
-        mockMvc.perform(get("/api/books/{id}", INVALID_ID))
-                .andExpect(status().isNotFound()).andReturn();
+        withinQueryBudget(1, () -> mockMvc.perform(get("/api/books/{id}", INVALID_ID))
+                .andExpect(status().isNotFound()).andReturn());
         assertThrows(EntityNotFoundException.class, () -> bookService.findById(
                 INVALID_ID));
     }
@@ -226,6 +311,7 @@ class BookControllerIntegrationTest {
     @Test
     @DisplayName("Verify delete() with valid will delete book")
     @WithMockUser(username = "user", password = "test", authorities = "ADMIN")
+    @QueryBudget(3)
     void delete_validId_Success() throws Exception {
         mockMvc.perform(delete("/api/books/{id}", VALID_ID))
                 .andExpect(status().isNoContent())
@@ -235,6 +321,7 @@ class BookControllerIntegrationTest {
     @Test
     @DisplayName("Verify search() with valid parameters will return book")
     @WithMockUser(username = "user", password = "test", authorities = {"ADMIN", "USER"})
+    @QueryBudget(1)
     void search_validSearchParameters_Success() throws Exception {
         List<BookDto> expected = new ArrayList<>();
         expected.add(prepareBookDto());
@@ -256,6 +343,7 @@ class BookControllerIntegrationTest {
     @Test
     @DisplayName("Update book with valid parameters")
     @WithMockUser(username = "user", password = "test", authorities = {"ADMIN", "USER"})
+    @QueryBudget(4)
     void updateBook_WithValidIdAndCreateBookRequestDto_Success() throws Exception {
         CreateBookRequestDto updateBookRequestDto = new CreateBookRequestDto()
                 .setTitle("Updated Title")
@@ -1,5 +1,6 @@
 package mate.academy.controller;
 
+import static mate.academy.config.QueryBudgetExtension.withinQueryBudget;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -18,6 +19,7 @@ import java.util.ArrayList;
 import java.util.List;
 import javax.sql.DataSource;
 import lombok.SneakyThrows;
+import mate.academy.config.QueryBudget;
 import mate.academy.dto.book.BookDtoWithoutCategoryIds;
 import mate.academy.dto.category.CategoryDto;
 import mate.academy.dto.category.CategoryResponseDto;
@@ -106,6 +108,7 @@ class CategoryControllerIntegrationTest {
     @Test
     @DisplayName("Create a new Category")
     @WithMockUser(username = "admin", password = "test", authorities = {"ADMIN"})
+    @QueryBudget(3)
     void createCategory_validCategoryDto_Success() throws Exception {
         CategoryDto requestDto = new CategoryDto()
                 .setName("New Category")
@@ -135,6 +138,7 @@ class CategoryControllerIntegrationTest {
     @Test
     @DisplayName("Get all categories from DB")
     @WithMockUser(username = "user", password = "test", authorities = "USER")
+    @QueryBudget(1)
     void getAll_WithPagination_ShouldReturnPageWithCategories() throws Exception {
         List<CategoryResponseDto> expected = new ArrayList<>();
         expected.add(new CategoryResponseDto()
@@ -171,6 +175,7 @@ class CategoryControllerIntegrationTest {
     @Test
     @DisplayName("Get category with valid Id from DB")
     @WithMockUser(username = "user", password = "test", authorities = {"USER"})
+    @QueryBudget(1)
     void getCategoryById_validId_shouldReturnCategory() throws Exception {
         CategoryResponseDto expected = new CategoryResponseDto()
                 .setName("Poetry")
@@ -193,8 +198,8 @@ class CategoryControllerIntegrationTest {
     @DisplayName("Get category with invalid Id throws exception")
     @WithMockUser(username = "user", password = "test", authorities = {"USER"})
     void getBookById_invalidId_shouldReturnException() throws Exception {
-        mockMvc.perform(get("/api/categories/{id}", INVALID_ID))
-                .andExpect(status().isNotFound()).andReturn();
+        withinQueryBudget(1, () -> mockMvc.perform(get("/api/categories/{id}", INVALID_ID))
+                .andExpect(status().isNotFound()).andReturn());
         assertThrows(EntityNotFoundException.class, () ->
                 categoryService.getById(INVALID_ID));
     }
@@ -202,6 +207,7 @@ class CategoryControllerIntegrationTest {
     @Test
     @DisplayName("Delete with valid Id will delete category")
     @WithMockUser(username = "user", password = "test", authorities = "ADMIN")
+    @QueryBudget(2)
     void delete_validId_Success() throws Exception {
         mockMvc.perform(delete("/api/categories/{id}", VALID_ID))
                 .andExpect(status().isNoContent())
@@ -211,6 +217,7 @@ class CategoryControllerIntegrationTest {
     @Test
     @DisplayName("Update category with valid parameters")
     @WithMockUser(username = "user", password = "test", authorities = {"ADMIN"})
+    @QueryBudget(3)
     void updateCategory_WithValidIdAndRequestDto_Success() throws Exception {
         CategoryDto updateRequestDto = new CategoryDto()
                 .setName("Updated Name")
@@ -248,6 +255,7 @@ class CategoryControllerIntegrationTest {
             "classpath:database/controller/category/remove-from-books.sql",
             "classpath:database/controller/category/remove-from-book_category.sql",
     }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    @QueryBudget(1)
     void getBooksByCategoryId_validId_success() throws Exception {
         List<BookDtoWithoutCategoryIds> expected = new ArrayList<>();
         expected.add(new BookDtoWithoutCategoryIds()
@@ -1,6 +1,7 @@
 package mate.academy.controller;
 
 import static mate.academy.config.DatabaseHelper.prepareOrderItemResponseDto;
+import static mate.academy.config.QueryBudgetExtension.withinQueryBudget;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 
@@ -11,6 +12,7 @@ import java.util.ArrayList;
 import java.util.List;
 import javax.sql.DataSource;
 import lombok.SneakyThrows;
+import mate.academy.config.QueryBudget;
 import mate.academy.dto.order.OrderResponseDto;
 import mate.academy.dto.order.OrderStatusDto;
 import mate.academy.dto.order.ShippingAddressRequestDto;
@@ -101,6 +103,7 @@ class OrderControllerIntegrationTest {
     @Test
     @DisplayName("Create order for user")
     @WithMockUser(username = "john@test.com", password = "test", authorities = {"USER"})
+    @QueryBudget(9)
     void createOrder_validAuthenticationAndShippingAddressRequestDto_Success() throws Exception {
         ShippingAddressRequestDto requestDto = new ShippingAddressRequestDto()
                 .setShippingAddress("Long address line");
@@ -115,6 +118,39 @@ class OrderControllerIntegrationTest {
                 .andReturn();
     }
 
+    @Test
+    @DisplayName("Repeated create order request with the same Idempotency-Key returns first order")
+    @WithMockUser(username = "john@test.com", password = "test", authorities = {"USER"})
+    @QueryBudget(15)
+    void createOrder_repeatedIdempotencyKey_ReturnsFirstOrder() throws Exception {
+        ShippingAddressRequestDto requestDto = new ShippingAddressRequestDto()
+                .setShippingAddress("Long address line");
+        String jsonRequest = objectMapper.writeValueAsString(requestDto);
+
+        MvcResult first = mockMvc.perform(
+                        MockMvcRequestBuilders.post("/api/orders")
+                                .header("Idempotency-Key", "checkout-1")
+                                .content(jsonRequest)
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        MvcResult second = mockMvc.perform(
+                        MockMvcRequestBuilders.post("/api/orders")
+                                .header("Idempotency-Key", "checkout-1")
+                                .content(jsonRequest)
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        OrderResponseDto expected = objectMapper.readValue(
+                first.getResponse().getContentAsString(), OrderResponseDto.class);
+        OrderResponseDto actual = objectMapper.readValue(
+                second.getResponse().getContentAsString(), OrderResponseDto.class);
+        assertEquals(expected, actual);
+    }
+
     @Test
     @DisplayName("Get all orders for user")
     @WithMockUser(username = "john@test.com", password = "test", authorities = {"USER"})
@@ -122,12 +158,12 @@ class OrderControllerIntegrationTest {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         List<OrderResponseDto> expected = orderService
                 .getAllOrders(authentication, Pageable.unpaged());
-        MvcResult mvcResult = mockMvc.perform(
+        MvcResult mvcResult = withinQueryBudget(3, () -> mockMvc.perform(
                         MockMvcRequestBuilders.get("/api/orders")
                                 .contentType(MediaType.APPLICATION_JSON)
                 )
                 .andExpect(MockMvcResultMatchers.status().isOk())
-                .andReturn();
+                .andReturn());
         String jsonResponse = mvcResult.getResponse().getContentAsString();
 
         List<OrderResponseDto> actual = objectMapper.readValue(
@@ -140,6 +176,7 @@ class OrderControllerIntegrationTest {
     @Test
     @DisplayName("Get all items by order id")
     @WithMockUser(username = "john@test.com", password = "test", authorities = {"USER"})
+    @QueryBudget(2)
     void getAllItemsByOrderId_validId_Success() throws Exception {
         OrderItemResponseDto itemResponseDto =
                 prepareOrderItemResponseDto(QUANTITY, VALID_ID);
@@ -170,6 +207,7 @@ class OrderControllerIntegrationTest {
     @Test
     @DisplayName("Get specific order item by order id and item id")
     @WithMockUser(username = "john@test.com", password = "test", authorities = {"USER"})
+    @QueryBudget(2)
     void getOrderItemByOrderIdAndItemId_validIds_Success() throws Exception {
         OrderItemResponseDto expected = prepareOrderItemResponseDto(QUANTITY, VALID_ID);
 
@@ -196,13 +234,13 @@ class OrderControllerIntegrationTest {
 
         String jsonRequest = objectMapper.writeValueAsString(orderStatusDto);
 
-        MvcResult mvcResult = mockMvc.perform(
+        MvcResult mvcResult = withinQueryBudget(2, () -> mockMvc.perform(
                         MockMvcRequestBuilders.put("/api/orders/1")
                                 .content(jsonRequest)
                                 .contentType(MediaType.APPLICATION_JSON)
                 )
                 .andExpect(MockMvcResultMatchers.status().isOk())
-                .andReturn();
+                .andReturn());
         String jsonResponse = mvcResult.getResponse().getContentAsString();
 
         OrderResponseDto actual = objectMapper.readValue(jsonResponse, OrderResponseDto.class);
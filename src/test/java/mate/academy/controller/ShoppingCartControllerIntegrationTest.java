@@ -1,13 +1,22 @@
 package mate.academy.controller;
 
 import static mate.academy.config.DatabaseHelper.prepareBook;
+import static mate.academy.config.QueryBudgetExtension.withinQueryBudget;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
 import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import javax.sql.DataSource;
 import lombok.SneakyThrows;
+import mate.academy.config.QueryBudget;
+import mate.academy.dto.cart.CartBatchRequestDto;
+import mate.academy.dto.cart.CartSummaryDto;
 import mate.academy.dto.cart.ShoppingCartDto;
 import mate.academy.dto.cartitem.CartItemQuantityRequestDto;
 import mate.academy.dto.cartitem.CartItemRequestDto;
@@ -24,6 +33,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.init.ScriptUtils;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -94,6 +104,7 @@ class ShoppingCartControllerIntegrationTest {
     @Test
     @DisplayName("Add book to shopping cart with valid user")
     @WithMockUser(username = "john@test.com", password = "test", authorities = {"USER"})
+    @QueryBudget(5)
     void addBook_validUserAndCartItemRequestDto() throws Exception {
         Book book = prepareBook();
         CartItemRequestDto requestDto = new CartItemRequestDto()
@@ -114,6 +125,7 @@ class ShoppingCartControllerIntegrationTest {
     @Test
     @DisplayName("Add book to shopping cart with invalid request")
     @WithMockUser(username = "john@test.com", password = "test", authorities = {"USER"})
+    @QueryBudget(0)
     void addBook_validUserAndInvalidCartItemRequestDto() throws Exception {
         CartItemRequestDto requestDto = new CartItemRequestDto()
                 .setQuantity(1);
@@ -135,12 +147,12 @@ class ShoppingCartControllerIntegrationTest {
     void getAllCartItems_validAuthentication_Success() throws Exception {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         ShoppingCartDto expected = shoppingCartService.getAllCartItems(authentication);
-        MvcResult mvcResult = mockMvc.perform(
+        MvcResult mvcResult = withinQueryBudget(2, () -> mockMvc.perform(
                         MockMvcRequestBuilders.get("/api/cart")
                         .contentType(MediaType.APPLICATION_JSON)
                 )
                 .andExpect(MockMvcResultMatchers.status().isOk())
-                .andReturn();
+                .andReturn());
         ShoppingCartDto actual = objectMapper.readValue(
                 mvcResult.getResponse().getContentAsString(),
                 ShoppingCartDto.class
@@ -148,9 +160,39 @@ class ShoppingCartControllerIntegrationTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("Get cart summary after adding a book")
+    @WithMockUser(username = "john@test.com", password = "test", authorities = {"USER"})
+    void getSummary_afterAddBook_ReturnsUpdatedTotals() throws Exception {
+        CartItemRequestDto requestDto = new CartItemRequestDto()
+                .setBookId(2L)
+                .setQuantity(1);
+        mockMvc.perform(
+                        MockMvcRequestBuilders.post("/api/cart")
+                                .content(objectMapper.writeValueAsString(requestDto))
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+
+        MvcResult mvcResult = withinQueryBudget(2, () -> mockMvc.perform(
+                        MockMvcRequestBuilders.get("/api/cart/summary")
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn());
+        CartSummaryDto actual = objectMapper.readValue(
+                mvcResult.getResponse().getContentAsString(),
+                CartSummaryDto.class
+        );
+        assertEquals(2, actual.itemCount());
+        assertEquals(6, actual.totalQuantity());
+        assertEquals(0, BigDecimal.valueOf(700).compareTo(actual.subtotal()));
+    }
+
     @Test
     @DisplayName("Get all cart items with invalid authentication ")
     @WithMockUser(username = "johnny@test.com", password = "invalidtest", authorities = {"USER"})
+    @QueryBudget(1)
     void getAllCartItems_invalidAuthentication_BadRequest() throws Exception {
         mockMvc.perform(
                         MockMvcRequestBuilders.get("/api/cart")
@@ -169,13 +211,13 @@ class ShoppingCartControllerIntegrationTest {
         cartItemQuantityRequestDto.setQuantity(2);
 
         String jsonRequest = objectMapper.writeValueAsString(cartItemQuantityRequestDto);
-        mockMvc.perform(
+        withinQueryBudget(5, () -> mockMvc.perform(
                         MockMvcRequestBuilders.put("/api/cart/books/1")
                                 .content(jsonRequest)
                                 .contentType(MediaType.APPLICATION_JSON)
                 )
                 .andExpect(MockMvcResultMatchers.status().isOk())
-                .andReturn();
+                .andReturn());
 
         ShoppingCartDto allCartItems = shoppingCartService.getAllCartItems(authentication);
         CartItemResponseDto responseDto = allCartItems.getCartItems().stream()
@@ -189,6 +231,7 @@ class ShoppingCartControllerIntegrationTest {
     @Test
     @DisplayName("Delete book by id in shopping cart")
     @WithMockUser(username = "john@test.com", password = "test", authorities = {"USER"})
+    @QueryBudget(3)
     void removeCartItemByBookId_validIdAndAuthentication_Success() throws Exception {
         mockMvc.perform(
                         MockMvcRequestBuilders.delete("/api/cart/cart-items/1")
@@ -197,4 +240,80 @@ class ShoppingCartControllerIntegrationTest {
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andReturn();
     }
+
+    @Test
+    @DisplayName("Remove a book whose price changed before the cart totals were refreshed")
+    @WithMockUser(username = "john@test.com", password = "test", authorities = {"USER"})
+    void removeCartItem_priceChangedBeforeRefresh_ReturnsEmptyTotals() throws Exception {
+        new JdbcTemplate(dataSource).update("UPDATE books SET price = 999 WHERE id = ?", BOOK_ID);
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders.delete("/api/cart/cart-items/1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get("/api/cart/summary")
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        CartSummaryDto actual = objectMapper.readValue(
+                mvcResult.getResponse().getContentAsString(),
+                CartSummaryDto.class
+        );
+        assertEquals(0, actual.itemCount());
+        assertEquals(0, actual.totalQuantity());
+        assertEquals(0, BigDecimal.ZERO.compareTo(actual.subtotal()));
+    }
+
+    @Test
+    @DisplayName("Add, update and remove cart items with one request")
+    @WithMockUser(username = "john@test.com", password = "test", authorities = {"USER"})
+    void updateCart_validRequest_Success() throws Exception {
+        CartBatchRequestDto requestDto = new CartBatchRequestDto()
+                .setAdd(List.of(new CartItemRequestDto().setBookId(2L).setQuantity(1),
+                        new CartItemRequestDto().setBookId(3L).setQuantity(1)))
+                .setUpdate(Map.of(1L, new CartItemQuantityRequestDto().setQuantity(EXPECTED_QTY)));
+        String jsonRequest = objectMapper.writeValueAsString(requestDto);
+
+        MvcResult mvcResult = withinQueryBudget(10, () -> mockMvc.perform(
+                        MockMvcRequestBuilders.post("/api/cart/batch")
+                                .content(jsonRequest)
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn());
+        ShoppingCartDto actual = objectMapper.readValue(
+                mvcResult.getResponse().getContentAsString(),
+                ShoppingCartDto.class
+        );
+        assertEquals(3, actual.getCartItems().size());
+        assertEquals(Map.of(1L, EXPECTED_QTY, 2L, 1, 3L, 1), actual.getCartItems().stream()
+                .collect(Collectors.toMap(CartItemResponseDto::getBookId,
+                        CartItemResponseDto::getQuantity)));
+        assertEquals(3, actual.getItemCount());
+        assertEquals(4, actual.getTotalQuantity());
+        assertEquals(0, BigDecimal.valueOf(650).compareTo(actual.getSubtotal()));
+    }
+
+    @Test
+    @DisplayName("Change cart items of another cart with one request")
+    @WithMockUser(username = "john@test.com", password = "test", authorities = {"USER"})
+    @QueryBudget(4)
+    void updateCart_unknownCartItem_NotFound() throws Exception {
+        CartBatchRequestDto requestDto = new CartBatchRequestDto()
+                .setAdd(List.of(new CartItemRequestDto().setBookId(2L).setQuantity(1)))
+                .setRemove(Set.of(100L));
+        String jsonRequest = objectMapper.writeValueAsString(requestDto);
+
+        mockMvc.perform(
+                        MockMvcRequestBuilders.post("/api/cart/batch")
+                                .content(jsonRequest)
+                                .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andReturn();
+    }
 }
@@ -0,0 +1,34 @@
+package mate.academy.lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CsvRecordReaderTest {
+
+    @Test
+    @DisplayName("Quoted fields keep separators, escaped quotes and line breaks")
+    void next_QuotedFields_ShouldUnescapeValues() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "title,description\r\n\"Quoted, \"\"title\"\"\",\"multi\nline\"\r\n"));
+
+        assertEquals(List.of("title", "description"), reader.next());
+        assertEquals(List.of("Quoted, \"title\"", "multi\nline"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Empty fields and last record without line break are read")
+    void next_EmptyFieldsWithoutTrailingNewLine_ShouldReturnAllFields() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("1,,3\n4,5,"));
+
+        assertEquals(List.of("1", "", "3"), reader.next());
+        assertEquals(List.of("4", "5", ""), reader.next());
+        assertNull(reader.next());
+    }
+}
@@ -0,0 +1,134 @@
+package mate.academy.lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import mate.academy.exception.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+    private static final String NAME = "books.findById";
+    private static final int CALLERS = 8;
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(meterRegistry);
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Concurrent callers for the same key share one load")
+    void execute_ConcurrentCallsForSameKey_ShouldLoadOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        final Future<Object> leader = executor.submit(() -> singleFlight.execute(NAME, 1L, () -> {
+            loads.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return new Object();
+        }));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+
+        List<Future<Object>> followers = new ArrayList<>();
+        for (int i = 1; i < CALLERS; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute(NAME, 1L, () -> {
+                loads.incrementAndGet();
+                return new Object();
+            })));
+        }
+        while (coalescedCount() < CALLERS - 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        Object result = leader.get(5, TimeUnit.SECONDS);
+        for (Future<Object> follower : followers) {
+            assertSame(result, follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(CALLERS - 1, coalescedCount());
+    }
+
+    @Test
+    @DisplayName("Failure of the load is propagated to every waiting caller")
+    void execute_LoadFails_ShouldRethrowForFollowers() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        final Future<Object> leader = executor.submit(() -> singleFlight.execute(NAME, 2L, () -> {
+            leaderStarted.countDown();
+            await(release);
+            throw new EntityNotFoundException("Can't find book by id 2");
+        }));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+        Future<Object> follower = executor.submit(
+                () -> singleFlight.execute(NAME, 2L, Object::new));
+        while (coalescedCount() < 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        ExecutionException leaderError = assertThrows(ExecutionException.class,
+                () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException followerError = assertThrows(ExecutionException.class,
+                () -> follower.get(5, TimeUnit.SECONDS));
+        assertEquals(EntityNotFoundException.class, leaderError.getCause().getClass());
+        assertSame(leaderError.getCause(), followerError.getCause());
+    }
+
+    @Test
+    @DisplayName("Forgotten flight is not joined by later callers")
+    void forget_InFlightKey_ShouldStartNewLoad() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        final Future<String> leader = executor.submit(() -> singleFlight.execute(NAME, 3L, () -> {
+            leaderStarted.countDown();
+            await(release);
+            return "stale";
+        }));
+        leaderStarted.await(5, TimeUnit.SECONDS);
+
+        singleFlight.forget(NAME, 3L);
+
+        assertEquals("fresh", singleFlight.execute(NAME, 3L, () -> "fresh"));
+        release.countDown();
+        assertEquals("stale", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(0, coalescedCount());
+    }
+
+    private double coalescedCount() {
+        return meterRegistry.counter("singleflight.calls", "name", NAME,
+                "role", "coalesced").count();
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
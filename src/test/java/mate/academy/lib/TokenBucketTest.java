@@ -0,0 +1,62 @@
+package mate.academy.lib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+    private static final int CAPACITY = 5;
+    private static final Duration REFILL_PERIOD = Duration.ofMinutes(1);
+    private static final long START = 1_000L;
+
+    @Test
+    @DisplayName("Full bucket allows a burst of capacity requests and then asks to wait")
+    void tryConsume_BurstAboveCapacity_ShouldReturnWaitTime() {
+        TokenBucket bucket = new TokenBucket(CAPACITY, REFILL_PERIOD, START);
+
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(0, bucket.tryConsume(START));
+        }
+
+        assertEquals(REFILL_PERIOD.toNanos() / CAPACITY, bucket.tryConsume(START));
+    }
+
+    @Test
+    @DisplayName("One token is refilled every refill period divided by capacity")
+    void tryConsume_AfterEmissionInterval_ShouldAllowOneMoreRequest() {
+        TokenBucket bucket = new TokenBucket(CAPACITY, REFILL_PERIOD, START);
+        for (int i = 0; i < CAPACITY; i++) {
+            bucket.tryConsume(START);
+        }
+        long later = START + REFILL_PERIOD.toNanos() / CAPACITY;
+
+        assertEquals(0, bucket.tryConsume(later));
+        assertTrue(bucket.tryConsume(later) > 0);
+    }
+
+    @Test
+    @DisplayName("Concurrent callers never consume more than capacity")
+    void tryConsume_ConcurrentCallers_ShouldNotOverspend() throws Exception {
+        TokenBucket bucket = new TokenBucket(CAPACITY, REFILL_PERIOD, START);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 100; i++) {
+            executor.execute(() -> {
+                if (bucket.tryConsume(START) == 0) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(CAPACITY, allowed.get());
+    }
+}
@@ -0,0 +1,165 @@
+package mate.academy.loadtest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import mate.academy.model.IdGenerators;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class LoadTestDataGenerator {
+    public static final String PASSWORD_HASH =
+            "$2a$10$l7wlcrpU7ncwbVK/qMUafe7gSFrzpXz3xj4Y3tOJo7BgQZT4rxMaq";
+    public static final List<String> WORDS = List.of("shadow", "river", "empire", "garden",
+            "winter", "secret", "silver", "ocean", "forest", "dragon", "island", "journey",
+            "history", "machine", "kingdom", "stranger", "summer", "letters", "mountain", "night",
+            "code", "design", "spring", "pattern", "patterns", "algorithms", "java", "systems",
+            "clean", "modern");
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_CATEGORIES_PER_BOOK = 2;
+    private static final int MAX_CART_ITEMS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random;
+
+    public LoadTestDataGenerator(JdbcTemplate jdbcTemplate, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.random = new Random(seed);
+    }
+
+    public Dataset generate(int categories, int books, int users) {
+        List<Long> categoryIds = insertCategories(categories);
+        List<Long> bookIds = insertBooks(books, categoryIds);
+        List<SeededUser> seededUsers = insertUsers(users);
+        insertCarts(seededUsers, bookIds);
+        for (String table : List.of("categories", "books", "users", "shopping_carts",
+                "cart_items")) {
+            advanceIdGenerator(table);
+        }
+        return new Dataset(bookIds, seededUsers);
+    }
+
+    private List<Long> insertCategories(int count) {
+        long firstId = nextId("categories");
+        List<Long> ids = new ArrayList<>(count);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            ids.add(id);
+            rows.add(new Object[]{id, "Category " + id, "Generated category " + id});
+        }
+        batchInsert("INSERT INTO categories (id, name, description, is_deleted)"
+                + " VALUES (?, ?, ?, false)", rows);
+        return ids;
+    }
+
+    private List<Long> insertBooks(int count, List<Long> categoryIds) {
+        long firstId = nextId("books");
+        List<Long> ids = new ArrayList<>(count);
+        List<Object[]> books = new ArrayList<>(count);
+        List<Object[]> bookCategories = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            ids.add(id);
+            books.add(new Object[]{id, words(3), capitalize(pick(WORDS)) + " "
+                    + capitalize(pick(WORDS)), "LT-" + id,
+                    BigDecimal.valueOf(500 + random.nextInt(9500), 2),
+                    "A " + words(8) + " story", "cover-" + id + ".jpg"});
+            int bookCategoryCount = 1 + random.nextInt(MAX_CATEGORIES_PER_BOOK);
+            for (int c = 0; c < bookCategoryCount && c < categoryIds.size(); c++) {
+                bookCategories.add(new Object[]{id, categoryIds.get(
+                        (int) ((id + c) % categoryIds.size()))});
+            }
+        }
+        batchInsert("INSERT INTO books (id, title, author, isbn, price, description,"
+                + " cover_image, is_deleted) VALUES (?, ?, ?, ?, ?, ?, ?, false)", books);
+        batchInsert("INSERT INTO books_categories (book_id, category_id) VALUES (?, ?)",
+                bookCategories);
+        return ids;
+    }
+
+    private List<SeededUser> insertUsers(int count) {
+        long firstId = nextId("users");
+        Long userRoleId = jdbcTemplate.queryForObject(
+                "SELECT id FROM roles WHERE role_name = 'USER'", Long.class);
+        List<SeededUser> users = new ArrayList<>(count);
+        List<Object[]> rows = new ArrayList<>(count);
+        List<Object[]> roles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            String email = "loadtest-user" + id + "@example.com";
+            users.add(new SeededUser(id, email));
+            rows.add(new Object[]{id, email, PASSWORD_HASH, "Load", "User " + id,
+                    id + " Test St"});
+            roles.add(new Object[]{id, userRoleId});
+        }
+        batchInsert("INSERT INTO users (id, email, password, first_name, last_name,"
+                + " shipping_address, is_deleted, token_version)"
+                + " VALUES (?, ?, ?, ?, ?, ?, false, 0)", rows);
+        batchInsert("INSERT INTO users_roles (user_id, role_id) VALUES (?, ?)", roles);
+        return users;
+    }
+
+    private void insertCarts(List<SeededUser> users, List<Long> bookIds) {
+        long firstCartId = nextId("shopping_carts");
+        long cartItemId = nextId("cart_items");
+        List<Object[]> carts = new ArrayList<>(users.size());
+        List<Object[]> cartItems = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            long cartId = firstCartId + i;
+            carts.add(new Object[]{cartId, users.get(i).id()});
+            int itemCount = 1 + random.nextInt(MAX_CART_ITEMS);
+            for (int item = 0; item < itemCount; item++) {
+                Long bookId = bookIds.get(random.nextInt(bookIds.size()));
+                cartItems.add(new Object[]{cartItemId++, cartId, bookId, 1 + random.nextInt(3),
+                        bookId});
+            }
+        }
+        batchInsert("INSERT INTO shopping_carts (id, user_id, is_deleted) VALUES (?, ?, false)",
+                carts);
+        batchInsert("INSERT INTO cart_items (id, shopping_cart_id, book_id, quantity, price,"
+                + " is_deleted) VALUES (?, ?, ?, ?, (SELECT price FROM books WHERE id = ?), false)",
+                cartItems);
+    }
+
+    private long nextId(String table) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table,
+                Long.class);
+    }
+
+    private void advanceIdGenerator(String table) {
+        jdbcTemplate.update("UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN
+                        + " = (SELECT COALESCE(MAX(id), 0) + ? FROM " + table + ") WHERE "
+                        + IdGenerators.NAME_COLUMN + " = ?",
+                IdGenerators.ALLOCATION_SIZE, table);
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from,
+                    Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    private String words(int count) {
+        List<String> words = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            words.add(pick(WORDS));
+        }
+        return String.join(" ", words);
+    }
+
+    private String pick(List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    public record Dataset(List<Long> bookIds, List<SeededUser> users) {
+    }
+
+    public record SeededUser(Long id, String email) {
+    }
+}
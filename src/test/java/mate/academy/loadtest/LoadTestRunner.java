@@ -0,0 +1,116 @@
+package mate.academy.loadtest;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import mate.academy.OnlineBookStoreApplication;
+import mate.academy.loadtest.LoadTestDataGenerator.Dataset;
+import mate.academy.model.Role;
+import mate.academy.model.User;
+import mate.academy.search.BookSearchIndex;
+import mate.academy.security.JwtUtil;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class LoadTestRunner {
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 5000);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 50);
+    private static final int BOOKS = Integer.getInteger("loadtest.books", 5000);
+    private static final int CATEGORIES = Integer.getInteger("loadtest.categories", 20);
+    private static final int USERS = Integer.getInteger("loadtest.users", CONCURRENCY);
+    private static final long SEED = Long.getLong("loadtest.seed", 42);
+    private static final int TOMCAT_THREADS = Integer.getInteger("loadtest.tomcat-threads", 50);
+    private static final int POOL_SIZE = Integer.getInteger("loadtest.pool-size", 100);
+    private static final String MODES = System.getProperty("loadtest.modes", "platform,virtual");
+    private static final String CART_STORE = System.getProperty("loadtest.cart-store", "jdbc");
+    private static final String JDBC_STATEMENTS_METRIC = "http.server.requests.jdbc.statements";
+    private static final Path REPORT_DIRECTORY = Path.of(System.getProperty("loadtest.report-dir",
+            "target/loadtest"));
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty(SimulatedLatencyStatementInspector.LATENCY_PROPERTY,
+                System.getProperty(SimulatedLatencyStatementInspector.LATENCY_PROPERTY, "0"));
+        LoadTestRunner runner = new LoadTestRunner();
+        for (String mode : MODES.split(",")) {
+            runner.run(mode.trim());
+        }
+        System.exit(0);
+    }
+
+    private void run(String mode) throws Exception {
+        try (ConfigurableApplicationContext context = start(mode)) {
+            Dataset dataset = new LoadTestDataGenerator(context.getBean(JdbcTemplate.class), SEED)
+                    .generate(CATEGORIES, BOOKS, USERS);
+            context.getBean(BookSearchIndex.class).rebuild();
+            LoadTestScenario scenario = new LoadTestScenario(client,
+                    ((WebServerApplicationContext) context).getWebServer().getPort(), dataset,
+                    tokens(context.getBean(JwtUtil.class), dataset), CONCURRENCY, SEED);
+            scenario.run(REQUESTS / 5);
+            LoadTestScenario.Report report = scenario.run(REQUESTS);
+            report.print(String.format("%s threads, %d clients, %d books, %s ms per statement,"
+                            + " %d Tomcat threads, %d connections, %s cart store", mode,
+                    CONCURRENCY, BOOKS,
+                    System.getProperty(SimulatedLatencyStatementInspector.LATENCY_PROPERTY),
+                    TOMCAT_THREADS, POOL_SIZE, CART_STORE), System.out);
+            report.write(REPORT_DIRECTORY.resolve(mode));
+            printJdbcStatements(context.getBean(MeterRegistry.class));
+        }
+    }
+
+    private void printJdbcStatements(MeterRegistry meterRegistry) {
+        System.out.printf("%n%-40s %10s %10s %8s%n", "JDBC per request", "requests",
+                "mean stmt", "max stmt");
+        meterRegistry.find(JDBC_STATEMENTS_METRIC).summaries().stream()
+                .sorted(Comparator.comparingDouble(DistributionSummary::mean).reversed())
+                .forEach(summary -> System.out.printf("%-40s %10d %10.1f %8.0f%n",
+                        summary.getId().getTag("method") + " " + summary.getId().getTag("uri"),
+                        summary.count(), summary.mean(), summary.max()));
+    }
+
+    private List<String> tokens(JwtUtil jwtUtil, Dataset dataset) {
+        Role role = new Role();
+        role.setRoleName(Role.RoleName.USER);
+        return dataset.users().stream()
+                .map(user -> jwtUtil.generateToken(new User()
+                        .setId(user.id())
+                        .setEmail(user.email())
+                        .setRoles(Set.of(role))))
+                .toList();
+    }
+
+    private ConfigurableApplicationContext start(String mode) {
+        return new SpringApplicationBuilder(OnlineBookStoreApplication.class).run(
+                "--spring.config.location=file:src/main/resources/application.properties",
+                "--server.port=0",
+                "--spring.docker.compose.enabled=false",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + mode
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + SimulatedLatencyStatementInspector.class.getName(),
+                "--spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--security.rate-limit.enabled=false",
+                "--cart.store=" + CART_STORE,
+                "--jwt.expiration=" + Duration.ofHours(1).toMillis(),
+                "--logging.level.root=WARN",
+                "--logging.level.org.apache.catalina.loader=ERROR");
+    }
+}
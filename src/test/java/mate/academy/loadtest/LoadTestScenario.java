@@ -0,0 +1,213 @@
+package mate.academy.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import mate.academy.loadtest.LoadTestDataGenerator.Dataset;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+public class LoadTestScenario {
+    private static final int PAGE_SIZE = 20;
+    private static final int MAX_PAGE = 50;
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Dataset dataset;
+    private final List<VirtualUser> virtualUsers = new ArrayList<>();
+
+    public LoadTestScenario(HttpClient client, int port, Dataset dataset, List<String> tokens,
+                            int concurrency, long seed) {
+        this.client = client;
+        this.baseUrl = "http://localhost:" + port;
+        this.dataset = dataset;
+        for (int i = 0; i < concurrency; i++) {
+            virtualUsers.add(new VirtualUser(new Random(seed + i), tokens.get(i % tokens.size())));
+        }
+    }
+
+    public Report run(int requests) throws InterruptedException {
+        Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+        Map<Endpoint, AtomicLong> errors = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            latencies.put(endpoint, new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+            errors.put(endpoint, new AtomicLong());
+        }
+        AtomicInteger next = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (VirtualUser virtualUser : virtualUsers) {
+                executor.execute(() -> {
+                    while (next.getAndIncrement() < requests) {
+                        virtualUser.step(latencies, errors);
+                    }
+                });
+            }
+        }
+        return new Report(System.nanoTime() - start, latencies, errors);
+    }
+
+    private HttpRequest request(Endpoint endpoint, Random random, String token) {
+        HttpRequest.Builder builder = switch (endpoint) {
+            case BROWSE -> get("/api/books?page=" + random.nextInt(MAX_PAGE) + "&size="
+                    + PAGE_SIZE);
+            case SEARCH -> get("/api/books/search?size=" + PAGE_SIZE + "&q=" + URLEncoder.encode(
+                    pick(random, LoadTestDataGenerator.WORDS) + " "
+                            + pick(random, LoadTestDataGenerator.WORDS),
+                    StandardCharsets.UTF_8));
+            case BOOK -> get("/api/books/" + pick(random, dataset.bookIds()));
+            case ADD_TO_CART -> post("/api/cart", "{\"bookId\":"
+                    + pick(random, dataset.bookIds()) + ",\"quantity\":1}");
+            case CHECKOUT -> post("/api/orders", "{\"shippingAddress\":\"Kyiv, Load st 1\"}");
+            case ORDER_HISTORY -> get("/api/orders");
+            default -> throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+        };
+        return builder.header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofMinutes(1))
+                .build();
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private <T> T pick(Random random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    public enum Endpoint {
+        BROWSE("GET /api/books", 35),
+        SEARCH("GET /api/books/search?q", 20),
+        BOOK("GET /api/books/{id}", 10),
+        ADD_TO_CART("POST /api/cart", 20),
+        CHECKOUT("POST /api/orders", 5),
+        ORDER_HISTORY("GET /api/orders", 10);
+
+        private static final int TOTAL_WEIGHT = 100;
+        private final String label;
+        private final int weight;
+
+        Endpoint(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+
+        static Endpoint pick(Random random) {
+            int roll = random.nextInt(TOTAL_WEIGHT);
+            for (Endpoint endpoint : values()) {
+                roll -= endpoint.weight;
+                if (roll < 0) {
+                    return endpoint;
+                }
+            }
+            return BROWSE;
+        }
+    }
+
+    public record Report(long elapsedNanos, Map<Endpoint, Histogram> latencies,
+                         Map<Endpoint, AtomicLong> errors) {
+        public void print(String title, PrintStream out) {
+            double seconds = elapsedNanos / 1e9;
+            Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+            latencies.values().forEach(total::add);
+            out.printf("%n%s: %d requests in %.1f s%n", title, total.getTotalCount(), seconds);
+            out.printf("%-26s %8s %9s %8s %8s %8s %8s %8s %7s%n", "endpoint", "count", "req/s",
+                    "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+            for (Endpoint endpoint : Endpoint.values()) {
+                printLine(out, endpoint.label, latencies.get(endpoint), seconds,
+                        errors.get(endpoint).get());
+            }
+            printLine(out, "total", total, seconds, errors.values().stream()
+                    .mapToLong(AtomicLong::get)
+                    .sum());
+        }
+
+        public void write(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            for (Endpoint endpoint : Endpoint.values()) {
+                try (PrintStream out = new PrintStream(Files.newOutputStream(
+                        directory.resolve(endpoint.name().toLowerCase() + ".hgrm")))) {
+                    latencies.get(endpoint).outputPercentileDistribution(out, MICROS_PER_MILLI);
+                }
+            }
+        }
+
+        private void printLine(PrintStream out, String label, Histogram histogram,
+                               double seconds, long errorCount) {
+            out.printf("%-26s %8d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %7d%n", label,
+                    histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99),
+                    millis(histogram, 99.9), histogram.getMaxValue() / MICROS_PER_MILLI,
+                    errorCount);
+        }
+
+        private double millis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+        }
+    }
+
+    private class VirtualUser {
+        private final Random random;
+        private final String token;
+        private boolean cartHasItems = true;
+
+        VirtualUser(Random random, String token) {
+            this.random = random;
+            this.token = token;
+        }
+
+        void step(Map<Endpoint, Histogram> latencies, Map<Endpoint, AtomicLong> errors) {
+            Endpoint endpoint = Endpoint.pick(random);
+            if (endpoint == Endpoint.CHECKOUT && !cartHasItems) {
+                endpoint = Endpoint.ADD_TO_CART;
+            }
+            HttpRequest request = request(endpoint, random, token);
+            long start = System.nanoTime();
+            boolean success;
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding())
+                        .statusCode();
+                success = status >= 200 && status < 300;
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            latencies.get(endpoint).recordValue(TimeUnit.NANOSECONDS.toMicros(
+                    System.nanoTime() - start));
+            if (!success) {
+                errors.get(endpoint).incrementAndGet();
+            } else if (endpoint == Endpoint.ADD_TO_CART) {
+                cartHasItems = true;
+            } else if (endpoint == Endpoint.CHECKOUT) {
+                cartHasItems = false;
+            }
+        }
+    }
+}
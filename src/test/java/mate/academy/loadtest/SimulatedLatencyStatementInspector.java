@@ -0,0 +1,20 @@
+package mate.academy.loadtest;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class SimulatedLatencyStatementInspector implements StatementInspector {
+    public static final String LATENCY_PROPERTY = "loadtest.db-latency-ms";
+    private final long latencyMillis = Long.getLong(LATENCY_PROPERTY, 0);
+
+    @Override
+    public String inspect(String sql) {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return sql;
+    }
+}
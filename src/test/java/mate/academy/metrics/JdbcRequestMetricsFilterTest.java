@@ -0,0 +1,81 @@
+package mate.academy.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+class JdbcRequestMetricsFilterTest {
+    private static final String URI_PATTERN = "/api/books/{id}";
+    private MeterRegistry meterRegistry;
+    private JdbcMetricsListener listener;
+    private JdbcRequestMetricsFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new JdbcMetricsListener(meterRegistry, Duration.ofMillis(100), 0.0);
+        filter = new JdbcRequestMetricsFilter(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Statements executed while handling a request are counted per endpoint")
+    void doFilter_StatementsExecuted_ShouldRecordStatementsPerRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, URI_PATTERN);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            execute(5, false, "select * from books where id = ?");
+            execute(3, true, "insert into cart_items values (?)",
+                    "insert into cart_items values (?)");
+        });
+
+        assertEquals(3, meterRegistry.get("http.server.requests.jdbc.statements")
+                .tag("method", "GET")
+                .tag("uri", URI_PATTERN)
+                .summary()
+                .totalAmount());
+        assertEquals(8, meterRegistry.get("http.server.requests.jdbc.time")
+                .tag("uri", URI_PATTERN)
+                .timer()
+                .totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(2, meterRegistry.get("jdbc.statements").tag("type", "insert")
+                .tag("batch", "true").timer().count());
+        assertNull(RequestQueryStats.current());
+    }
+
+    @Test
+    @DisplayName("Statements at or above the threshold are counted as slow")
+    void afterQuery_SlowStatement_ShouldIncrementSlowCounter() {
+        execute(99, false, "select 1");
+        execute(100, false, "update books set price = ?");
+
+        assertEquals(1, meterRegistry.get("jdbc.statements.slow").counter().count());
+        assertEquals(1, meterRegistry.get("jdbc.statements").tag("type", "update")
+                .timer().count());
+    }
+
+    private void execute(long elapsedMillis, boolean batch, String... queries) {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setElapsedTime(elapsedMillis);
+        executionInfo.setBatch(batch);
+        executionInfo.setBatchSize(queries.length);
+        List<QueryInfo> queryInfos = Arrays.stream(queries)
+                .map(QueryInfo::new)
+                .toList();
+        listener.afterQuery(executionInfo, queryInfos);
+    }
+}
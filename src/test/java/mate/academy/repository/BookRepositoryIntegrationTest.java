@@ -79,6 +79,24 @@ class BookRepositoryIntegrationTest {
         assertEquals(PAGE_SIZE, actual.getContent().size());
     }
 
+    @Test
+    @DisplayName("Find ids of books after title cursor")
+    @Sql(scripts = {
+            "classpath:database/repository/book/before/add-books-to-books-table.sql",
+            "classpath:database/repository/book/before/add-category-to-categories-table.sql",
+            "classpath:database/repository/book/before/add-category-to-book.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/repository/book/after/remove-from-book_category.sql",
+            "classpath:database/repository/book/after/remove-from-books.sql",
+            "classpath:database/repository/book/after/remove-from-categories.sql"
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findIdsAfterTitle_validCursor_ShouldReturnFollowingIds() {
+        List<Long> actual = bookRepository.findIdsAfterTitle("Book 1", BOOK_ID,
+                PageRequest.of(PAGE_NUMBER, PAGE_SIZE));
+        assertEquals(List.of(2L, 3L), actual);
+    }
+
     @Test
     @DisplayName("Find book with valid id represents book with categories")
     @Sql(scripts = {
@@ -101,6 +119,7 @@ class BookRepositoryIntegrationTest {
         Optional<Book> actual = bookRepository.findById(BOOK_ID);
         assertFalse(actual.isEmpty());
         assertEquals(expected, actual.get());
+        assertEquals(expected.getCategories(), actual.get().getCategories());
     }
 
     @Test
@@ -140,5 +159,6 @@ class BookRepositoryIntegrationTest {
         List<Book> actual = bookRepository.findAll(spec);
 
         assertEquals(expected, actual);
+        assertEquals(expected.get(0).getCategories(), actual.get(0).getCategories());
     }
 }
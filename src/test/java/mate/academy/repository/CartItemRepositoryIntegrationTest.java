@@ -7,6 +7,7 @@ import static mate.academy.config.DatabaseHelper.prepareUser;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import mate.academy.model.Book;
@@ -14,6 +15,7 @@ import mate.academy.model.CartItem;
 import mate.academy.model.ShoppingCart;
 import mate.academy.model.User;
 import mate.academy.repository.cartitem.CartItemRepository;
+import mate.academy.repository.cartitem.DeletedCartItem;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -67,4 +69,30 @@ class CartItemRepositoryIntegrationTest {
 
         assertEquals(expectedShoppingCart, actual.get().getShoppingCart());
     }
+
+    @Test
+    @DisplayName("Find deleted cart items of a shopping cart")
+    @Sql(scripts = {
+            "classpath:database/repository/cartItem/after/remove-from-books.sql",
+            "classpath:database/repository/cartItem/before/add-books-to-books-table.sql",
+            "classpath:database/repository/cartItem/before/add-user-to-users-table.sql",
+            "classpath:database/repository/cartItem/before/add-shopping-cart.sql",
+            "classpath:database/repository/cartItem/before/add-cart-item-to-cart-items-table.sql",
+            "classpath:database/repository/cartItem/before/"
+                    + "add-deleted-cart-item-to-cart-items-table.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/repository/cartItem/after/remove-from-cart_items.sql",
+            "classpath:database/repository/cartItem/after/remove-from-books.sql",
+            "classpath:database/repository/cartItem/after/remove-from-shopping_carts.sql",
+            "classpath:database/repository/cartItem/after/remove-from-users.sql",
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void findDeletedByShoppingCartId_deletedCartItem_ReturnsIdAndBookId() {
+        List<DeletedCartItem> actual = cartItemRepository
+                .findDeletedByShoppingCartId(SHOPPING_CART_ID);
+
+        assertEquals(1, actual.size());
+        assertEquals(2L, actual.get(0).getId());
+        assertEquals(2L, actual.get(0).getBookId());
+    }
 }
@@ -0,0 +1,80 @@
+package mate.academy.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import liquibase.Contexts;
+import liquibase.LabelExpression;
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LiquibaseException;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class CartItemsUniqueIndexMigrationTest {
+    private static final String URL =
+            "jdbc:h2:mem:cart_items_migration;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String BEFORE_CHANGELOG =
+            "db/migration/db.changelog-before-cart-items-unique-index.yaml";
+    private static final String CHANGELOG = "db/db.changelog-test.yaml";
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws SQLException, LiquibaseException {
+        dataSource = new DriverManagerDataSource(URL, "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        migrate(BEFORE_CHANGELOG);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    @DisplayName("Unique cart item index keeps the live row of a re-added book")
+    void migrate_TombstoneAndLiveDuplicates_ShouldKeepLiveRowWithSummedQuantity()
+            throws SQLException, LiquibaseException {
+        jdbcTemplate.update("INSERT INTO books (id, title, author, isbn, price, is_deleted) "
+                + "VALUES (1, 'Book 1', 'Author 1', 'isbn-1', 10, FALSE), "
+                + "(2, 'Book 2', 'Author 2', 'isbn-2', 20, FALSE)");
+        jdbcTemplate.update("INSERT INTO users (id, email, password, first_name, last_name, "
+                + "is_deleted) VALUES (1, 'bob@example.com', 'password', 'Bob', 'Smith', FALSE)");
+        jdbcTemplate.update("INSERT INTO shopping_carts (id, user_id, is_deleted) "
+                + "VALUES (1, 1, FALSE)");
+        jdbcTemplate.update("INSERT INTO cart_items (id, shopping_cart_id, book_id, quantity, "
+                + "is_deleted) VALUES (1, 1, 1, 2, TRUE), (2, 1, 1, 3, FALSE), "
+                + "(3, 1, 1, 4, FALSE), (4, 1, 2, 1, TRUE), (5, 1, 2, 5, TRUE)");
+
+        migrate(CHANGELOG);
+
+        List<List<Object>> actual = jdbcTemplate.query(
+                "SELECT id, quantity, is_deleted FROM cart_items ORDER BY id",
+                (resultSet, rowNum) -> List.of(resultSet.getLong("id"),
+                        resultSet.getInt("quantity"), resultSet.getBoolean("is_deleted")));
+        assertEquals(List.of(List.of(2L, 7, false), List.of(4L, 1, true)), actual);
+        assertEquals(List.of(1, 7), jdbcTemplate.queryForObject(
+                "SELECT item_count, total_quantity FROM shopping_carts WHERE id = 1",
+                (resultSet, rowNum) -> List.of(resultSet.getInt("item_count"),
+                        resultSet.getInt("total_quantity"))));
+    }
+
+    private void migrate(String changelog) throws SQLException, LiquibaseException {
+        try (Connection connection = dataSource.getConnection()) {
+            Database database = DatabaseFactory.getInstance()
+                    .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            new Liquibase(changelog, new ClassLoaderResourceAccessor(), database)
+                    .update(new Contexts(), new LabelExpression());
+        }
+    }
+}
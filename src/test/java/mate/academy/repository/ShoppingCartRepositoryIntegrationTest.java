@@ -6,6 +6,7 @@ import static mate.academy.config.DatabaseHelper.prepareShoppingCart;
 import static mate.academy.config.DatabaseHelper.prepareUser;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.Optional;
 import java.util.Set;
@@ -18,12 +19,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.jdbc.Sql;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 class ShoppingCartRepositoryIntegrationTest {
     private static final Long USER_ID = 1L;
+    private static final Long SHOPPING_CART_ID = 1L;
     private static final Long CART_ITEM_ID = 1L;
     private static final int QUANTITY = 5;
     @Autowired
@@ -54,4 +57,39 @@ class ShoppingCartRepositoryIntegrationTest {
         assertFalse(actual.isEmpty());
         assertEquals(expected, actual.get());
     }
+
+    @Test
+    @Sql(scripts = {
+            "classpath:database/repository/cart/before/add-user-to-users-table.sql",
+            "classpath:database/repository/cart/before/add-shopping-cart.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/repository/cart/after/remove-from-shopping_carts.sql",
+            "classpath:database/repository/cart/after/remove-from-users.sql",
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void saveAndFlush_secondActiveCart_ThrowsException() {
+        ShoppingCart shoppingCart = new ShoppingCart().setUser(prepareUser());
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> shoppingCartRepository.saveAndFlush(shoppingCart));
+    }
+
+    @Test
+    @Sql(scripts = {
+            "classpath:database/repository/cart/before/add-user-to-users-table.sql",
+            "classpath:database/repository/cart/before/add-shopping-cart.sql"
+    }, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+    @Sql(scripts = {
+            "classpath:database/repository/cart/after/remove-from-shopping_carts.sql",
+            "classpath:database/repository/cart/after/remove-from-users.sql",
+    }, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    void saveAndFlush_afterDeletingActiveCart_Success() {
+        shoppingCartRepository.deleteById(SHOPPING_CART_ID);
+        shoppingCartRepository.flush();
+
+        ShoppingCart actual = shoppingCartRepository.saveAndFlush(
+                new ShoppingCart().setUser(prepareUser()));
+
+        assertEquals(Optional.of(actual.getId()), shoppingCartRepository.findIdByUserId(USER_ID));
+    }
 }
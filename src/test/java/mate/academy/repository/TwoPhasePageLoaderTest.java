@@ -0,0 +1,53 @@
+package mate.academy.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import mate.academy.model.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+class TwoPhasePageLoaderTest {
+
+    @Test
+    @DisplayName("Load keeps order of id page and its total count")
+    void load_IdPage_ShouldKeepOrderAndTotal() {
+        PageRequest pageable = PageRequest.of(1, 3);
+        Page<Long> idPage = new PageImpl<>(List.of(5L, 2L, 9L), pageable, 10);
+
+        Page<Book> actual = TwoPhasePageLoader.load(idPage,
+                ids -> reversed(ids), Book::getId);
+
+        assertEquals(List.of(5L, 2L, 9L), actual.map(Book::getId).getContent());
+        assertEquals(10, actual.getTotalElements());
+        assertEquals(pageable, actual.getPageable());
+    }
+
+    @Test
+    @DisplayName("Load in order skips fetch for empty ids and ignores missing entities")
+    void loadInOrder_EmptyOrMissingIds_ShouldReturnFoundEntities() {
+        List<Collection<Long>> fetchedIds = new ArrayList<>();
+
+        assertTrue(TwoPhasePageLoader.loadInOrder(List.of(), ids -> {
+            fetchedIds.add(ids);
+            return List.<Book>of();
+        }, Book::getId).isEmpty());
+        assertTrue(fetchedIds.isEmpty());
+
+        List<Book> actual = TwoPhasePageLoader.loadInOrder(List.of(3L, 4L),
+                ids -> List.of(new Book().setId(4L)), Book::getId);
+        assertEquals(List.of(4L), actual.stream().map(Book::getId).toList());
+    }
+
+    private List<Book> reversed(Collection<Long> ids) {
+        List<Book> books = new ArrayList<>();
+        ids.forEach(id -> books.add(0, new Book().setId(id)));
+        return books;
+    }
+}
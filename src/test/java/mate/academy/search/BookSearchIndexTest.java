@@ -0,0 +1,118 @@
+package mate.academy.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import mate.academy.dto.book.BookDto;
+import mate.academy.mapper.BookMapper;
+import mate.academy.model.Book;
+import mate.academy.repository.book.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BookSearchIndexTest {
+    private static final int LIMIT = 10;
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private BookMapper bookMapper;
+    @InjectMocks
+    private BookSearchIndex bookSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        bookSearchIndex.index(prepareBook(1L, "The Hobbit", "J. R. R. Tolkien",
+                "A journey there and back again", "978-0-261-10221-7"));
+        bookSearchIndex.index(prepareBook(2L, "Kobzar", "Taras Shevchenko",
+                "Poems about the journey of Ukrainian people", "978-966-03-4386-9"));
+        bookSearchIndex.index(prepareBook(3L, "Les Misérables", "Victor Hugo",
+                "A story of justice and mercy", "978-0-14-044430-8"));
+    }
+
+    @Test
+    @DisplayName("Search by author surname finds the book ignoring case")
+    void search_AuthorSurname_ShouldReturnBook() {
+        List<BookDto> actual = bookSearchIndex.search("tolkien", 0, LIMIT);
+
+        assertEquals(1, actual.size());
+        assertEquals(1L, actual.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Title match is ranked above description match")
+    void search_TermInTitleAndDescription_ShouldRankTitleFirst() {
+        bookSearchIndex.index(prepareBook(4L, "Journey to the West", "Wu Cheng'en",
+                "Classic novel", "978-0-226-97132-2"));
+
+        List<BookDto> actual = bookSearchIndex.search("journey", 0, LIMIT);
+
+        assertEquals(3, actual.size());
+        assertEquals(4L, actual.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Search ignores diacritics and matches isbn without separators")
+    void search_NormalizedTerms_ShouldMatch() {
+        assertEquals(3L, bookSearchIndex.search("miserables", 0, LIMIT).get(0).getId());
+        assertEquals(2L, bookSearchIndex.search("9789660343869", 0, LIMIT).get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Updated and removed books are reflected in search results")
+    void indexAndRemove_ChangedBooks_ShouldUpdateResults() {
+        bookSearchIndex.index(prepareBook(1L, "The Silmarillion", "J. R. R. Tolkien",
+                "Myths of Middle-earth", "978-0-261-10273-6"));
+        assertTrue(bookSearchIndex.search("hobbit", 0, LIMIT).isEmpty());
+        assertEquals(1, bookSearchIndex.search("silmarillion", 0, LIMIT).size());
+
+        bookSearchIndex.remove(1L);
+        assertTrue(bookSearchIndex.search("tolkien", 0, LIMIT).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Offset and limit page through ranked results")
+    void search_WithOffsetAndLimit_ShouldReturnPage() {
+        List<BookDto> all = bookSearchIndex.search("journey justice", 0, LIMIT);
+        List<BookDto> secondPage = bookSearchIndex.search("journey justice", 1, 1);
+
+        assertEquals(3, all.size());
+        assertEquals(List.of(all.get(1)), secondPage);
+    }
+
+    @Test
+    @DisplayName("Rebuild replaces index content with books from repository")
+    void rebuild_BooksInRepository_ShouldReplaceIndex() {
+        Book book = new Book().setId(5L).setTitle("Dune").setAuthor("Frank Herbert")
+                .setIsbn("978-0-441-17271-9").setPrice(BigDecimal.TEN);
+        BookDto bookDto = prepareBook(5L, "Dune", "Frank Herbert", null, "978-0-441-17271-9");
+        when(bookRepository.findAllWithCategories()).thenReturn(List.of(book));
+        when(bookMapper.toDto(book)).thenReturn(bookDto);
+
+        bookSearchIndex.rebuild();
+
+        assertTrue(bookSearchIndex.search("tolkien", 0, LIMIT).isEmpty());
+        assertEquals(List.of(bookDto), bookSearchIndex.search("dune", 0, LIMIT));
+    }
+
+    private BookDto prepareBook(Long id, String title, String author,
+                                String description, String isbn) {
+        return new BookDto()
+                .setId(id)
+                .setTitle(title)
+                .setAuthor(author)
+                .setDescription(description)
+                .setIsbn(isbn)
+                .setPrice(BigDecimal.TEN)
+                .setCategoryIds(Set.of());
+    }
+}
@@ -0,0 +1,96 @@
+package mate.academy.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class AuthRateLimitFilterTest {
+    private static final int IP_CAPACITY = 3;
+    private static final int EMAIL_CAPACITY = 2;
+    private SimpleMeterRegistry meterRegistry;
+    private AuthRateLimitFilter authRateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        authRateLimitFilter = new AuthRateLimitFilter(
+                new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry,
+                IP_CAPACITY, Duration.ofMinutes(1), EMAIL_CAPACITY, Duration.ofMinutes(1), 100);
+        ReflectionTestUtils.setField(authRateLimitFilter, "enabled", true);
+    }
+
+    @Test
+    @DisplayName("Login attempts above the per-email limit are rejected with 429")
+    void doFilter_TooManyAttemptsForEmail_ShouldReturnTooManyRequests() throws Exception {
+        for (int i = 0; i < EMAIL_CAPACITY; i++) {
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse response = login("10.0.0." + i, "John@Test.com", chain);
+            assertEquals(200, response.getStatus());
+            assertNotNull(chain.getRequest());
+        }
+        MockFilterChain chain = new MockFilterChain();
+
+        MockHttpServletResponse response = login("10.0.0.9", "john@test.com", chain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("30", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertNull(chain.getRequest());
+        assertEquals(1.0, meterRegistry.counter("auth.rate_limit.rejected", "key", "email")
+                .count());
+    }
+
+    @Test
+    @DisplayName("Requests above the per-IP limit are rejected regardless of email")
+    void doFilter_TooManyAttemptsFromIp_ShouldReturnTooManyRequests() throws Exception {
+        for (int i = 0; i < IP_CAPACITY; i++) {
+            login("10.0.0.1", "user" + i + "@test.com", new MockFilterChain());
+        }
+
+        MockHttpServletResponse response = login("10.0.0.1", "other@test.com",
+                new MockFilterChain());
+
+        assertEquals(429, response.getStatus());
+        assertEquals(1.0, meterRegistry.counter("auth.rate_limit.rejected", "key", "ip")
+                .count());
+    }
+
+    @Test
+    @DisplayName("Request body is still readable by the controller after inspection")
+    void doFilter_AllowedRequest_ShouldPassFullBodyDownstream() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        login("10.0.0.1", "john@test.com", chain);
+
+        assertEquals(body("john@test.com"), new String(chain.getRequest().getInputStream()
+                .readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    private MockHttpServletResponse login(String ip, String email, MockFilterChain chain)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(body(email).getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        authRateLimitFilter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private String body(String email) {
+        return "{\"email\":\"" + email + "\",\"password\":\"12345678\"}";
+    }
+}
@@ -0,0 +1,106 @@
+package mate.academy.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import mate.academy.exception.PasswordHashingUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class BoundedPasswordEncoderTest {
+    private static final int MIN_BCRYPT_STRENGTH = 4;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        passwordEncoder.destroy();
+    }
+
+    @Test
+    @DisplayName("Encoded password matches the raw password")
+    void encodeAndMatches_ValidPassword_ShouldDelegateToBcrypt() {
+        passwordEncoder = new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(MIN_BCRYPT_STRENGTH), 1, 1, Duration.ofSeconds(5),
+                meterRegistry);
+
+        String encoded = passwordEncoder.encode("12345678");
+
+        assertTrue(passwordEncoder.matches("12345678", encoded));
+        assertEquals(false, passwordEncoder.matches("87654321", encoded));
+    }
+
+    @Test
+    @DisplayName("Saturated pool rejects new work immediately")
+    void encode_PoolAndQueueFull_ShouldThrowUnavailable() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        passwordEncoder = new BoundedPasswordEncoder(blockingEncoder(started), 1, 1,
+                Duration.ofSeconds(5), meterRegistry);
+        CompletableFuture.runAsync(() -> passwordEncoder.encode("running"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> passwordEncoder.encode("queued"));
+        waitForQueuedTask();
+
+        PasswordHashingUnavailableException exception = assertThrows(
+                PasswordHashingUnavailableException.class,
+                () -> passwordEncoder.encode("rejected"));
+
+        assertEquals(5, exception.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.counter("password.hashing.rejected").count());
+    }
+
+    @Test
+    @DisplayName("Work waiting longer than the timeout is abandoned")
+    void matches_TimeoutExceeded_ShouldThrowUnavailable() {
+        passwordEncoder = new BoundedPasswordEncoder(blockingEncoder(new CountDownLatch(1)), 1,
+                1, Duration.ofMillis(50), meterRegistry);
+
+        assertThrows(PasswordHashingUnavailableException.class,
+                () -> passwordEncoder.matches("12345678", "encoded"));
+    }
+
+    private void waitForQueuedTask() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("executor.queued").gauge().value() < 1
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private PasswordEncoder blockingEncoder(CountDownLatch started) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                await();
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                await();
+                return true;
+            }
+        };
+    }
+
+    private void await() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package mate.academy.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import mate.academy.dto.user.UserIdentity;
+import mate.academy.model.Role;
+import mate.academy.model.User;
+import mate.academy.service.UserIdentityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+    private static final String SECRET = "perfectlengthsecretkey01234567890909090909090";
+    private static final long CLAIMS_CACHE_SIZE = 100;
+    private static final Long USER_ID = 1L;
+    private static final String EMAIL = "john@test.com";
+    @Mock
+    private UserIdentityService userIdentityService;
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, CLAIMS_CACHE_SIZE);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 300000L);
+        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtUtil, userIdentityService,
+                tokenVersionRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Stateless mode builds authentication from token claims without user lookup")
+    void doFilter_StatelessMode_ShouldAuthenticateFromClaims() throws Exception {
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "stateless", true);
+        String token = jwtUtil.generateToken(prepareUser());
+
+        jwtAuthenticationFilter.doFilter(prepareRequest(token), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(new AuthenticatedUser(USER_ID, EMAIL), authentication.getPrincipal());
+        assertEquals(EMAIL, authentication.getName());
+        assertEquals(List.of("USER"), authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        Mockito.verifyNoInteractions(userIdentityService);
+    }
+
+    @Test
+    @DisplayName("Default mode loads the cached user identity by token subject")
+    void doFilter_DefaultMode_ShouldLoadUserIdentity() throws Exception {
+        String token = jwtUtil.generateToken(prepareUser());
+        when(userIdentityService.getIdentity(EMAIL))
+                .thenReturn(new UserIdentity(USER_ID, EMAIL, Set.of("ADMIN")));
+
+        jwtAuthenticationFilter.doFilter(prepareRequest(token), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(new AuthenticatedUser(USER_ID, EMAIL), authentication.getPrincipal());
+        assertEquals(List.of("ADMIN"), authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Token issued before the user's tokens were revoked is not authenticated")
+    void doFilter_RevokedToken_ShouldNotAuthenticate() throws Exception {
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "stateless", true);
+        String token = jwtUtil.generateToken(prepareUser());
+        when(tokenVersionRegistry.isRevoked(USER_ID, 0)).thenReturn(true);
+
+        jwtAuthenticationFilter.doFilter(prepareRequest(token), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        Mockito.verifyNoInteractions(userIdentityService);
+    }
+
+    private MockHttpServletRequest prepareRequest(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cart");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private User prepareUser() {
+        Role role = new Role();
+        role.setRoleName(Role.RoleName.USER);
+        return new User()
+                .setId(USER_ID)
+                .setEmail(EMAIL)
+                .setRoles(Set.of(role));
+    }
+}
@@ -0,0 +1,94 @@
+package mate.academy.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import mate.academy.repository.user.UserRepository;
+import mate.academy.repository.user.UserTokenVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class TokenVersionRegistryTest {
+    private static final long EXPIRATION = 300000L;
+    private static final Long USER_ID = 1L;
+    private static final String EMAIL = "john@test.com";
+    @Mock
+    private UserRepository userRepository;
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @BeforeEach
+    void setUp() {
+        tokenVersionRegistry = new TokenVersionRegistry(userRepository);
+        ReflectionTestUtils.setField(tokenVersionRegistry, "expiration", EXPIRATION);
+    }
+
+    @Test
+    @DisplayName("Refresh loads revocations newer than the token lifetime")
+    void refresh_RecentRevocation_ShouldRevokeOlderTokens() {
+        when(userRepository.findTokenVersionsRevokedAfter(any(LocalDateTime.class)))
+                .thenReturn(List.of(tokenVersion(2, LocalDateTime.now())));
+
+        tokenVersionRegistry.refresh();
+
+        assertTrue(tokenVersionRegistry.isRevoked(USER_ID, 1));
+        assertFalse(tokenVersionRegistry.isRevoked(USER_ID, 2));
+    }
+
+    @Test
+    @DisplayName("Refresh drops revocations older than the token lifetime")
+    void refresh_ExpiredRevocation_ShouldEvict() {
+        when(userRepository.findTokenVersionByEmail(EMAIL)).thenReturn(Optional.of(
+                tokenVersion(1, LocalDateTime.now().minusSeconds(EXPIRATION / 1000 + 1))));
+        tokenVersionRegistry.revoke(EMAIL);
+        when(userRepository.findTokenVersionsRevokedAfter(any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        tokenVersionRegistry.refresh();
+
+        assertFalse(tokenVersionRegistry.isRevoked(USER_ID, 0));
+    }
+
+    @Test
+    @DisplayName("Revoke keeps the highest known token version")
+    void revoke_StaleRefresh_ShouldKeepHighestVersion() {
+        when(userRepository.findTokenVersionByEmail(EMAIL))
+                .thenReturn(Optional.of(tokenVersion(3, LocalDateTime.now())));
+        tokenVersionRegistry.revoke(EMAIL);
+        when(userRepository.findTokenVersionsRevokedAfter(any(LocalDateTime.class)))
+                .thenReturn(List.of(tokenVersion(2, LocalDateTime.now())));
+
+        tokenVersionRegistry.refresh();
+
+        assertTrue(tokenVersionRegistry.isRevoked(USER_ID, 2));
+    }
+
+    private UserTokenVersion tokenVersion(int version, LocalDateTime revokedAt) {
+        return new UserTokenVersion() {
+            @Override
+            public Long getId() {
+                return USER_ID;
+            }
+
+            @Override
+            public int getTokenVersion() {
+                return version;
+            }
+
+            @Override
+            public LocalDateTime getTokenRevokedAt() {
+                return revokedAt;
+            }
+        };
+    }
+}
@@ -0,0 +1,140 @@
+package mate.academy.service;
+
+import static mate.academy.config.DatabaseHelper.prepareBook;
+import static mate.academy.config.DatabaseHelper.prepareBookDto;
+import static mate.academy.config.DatabaseHelper.prepareCreateBookRequestDto;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import mate.academy.config.CacheConfig;
+import mate.academy.dto.book.BookDto;
+import mate.academy.lib.SingleFlight;
+import mate.academy.mapper.BookMapper;
+import mate.academy.model.Book;
+import mate.academy.repository.book.BookRepository;
+import mate.academy.repository.book.BookSpecificationBuilder;
+import mate.academy.search.BookSearchIndex;
+import mate.academy.service.impl.BookServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+@SpringJUnitConfig
+class BookServiceCacheTest {
+    private static final Long BOOK_ID = 1L;
+    private static final Long OTHER_BOOK_ID = 2L;
+    private static final Long UPDATED_BOOK_ID = 3L;
+    @MockBean
+    private BookRepository bookRepository;
+    @MockBean
+    private BookMapper bookMapper;
+    @MockBean
+    private BookSpecificationBuilder bookSpecificationBuilder;
+    @MockBean
+    private BookSearchIndex bookSearchIndex;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    @DisplayName("Verify findById() reads book from database once until it is deleted")
+    void findById_RepeatedCallsAndDelete_ShouldUseCacheUntilEviction() {
+        //Given
+        Book book = prepareBook();
+        BookDto bookDto = prepareBookDto();
+        when(bookRepository.findById(BOOK_ID)).thenReturn(Optional.of(book));
+        when(bookMapper.toDto(book)).thenReturn(bookDto);
+
+        //When
+        bookService.findById(BOOK_ID);
+        BookDto cached = bookService.findById(BOOK_ID);
+        bookService.deleteById(BOOK_ID);
+        bookService.findById(BOOK_ID);
+
+        //Then
+        assertEquals(bookDto, cached);
+        verify(bookRepository, times(2)).findById(BOOK_ID);
+    }
+
+    @Test
+    @DisplayName("Verify deleteById() in a transaction evicts the cached book after commit")
+    void deleteById_InTransaction_ShouldEvictAfterCommit() {
+        //Given
+        Book book = prepareBook().setId(OTHER_BOOK_ID);
+        when(bookRepository.findById(OTHER_BOOK_ID)).thenReturn(Optional.of(book));
+        when(bookMapper.toDto(book)).thenReturn(prepareBookDto());
+        bookService.findById(OTHER_BOOK_ID);
+
+        //When
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookService.deleteById(OTHER_BOOK_ID);
+            bookService.findById(OTHER_BOOK_ID);
+            verify(bookRepository, times(1)).findById(OTHER_BOOK_ID);
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        bookService.findById(OTHER_BOOK_ID);
+
+        //Then
+        verify(bookRepository, times(2)).findById(OTHER_BOOK_ID);
+    }
+
+    @Test
+    @DisplayName("Verify findById() does not cache a book read before a concurrent update")
+    void findById_UpdateCommittedDuringRead_ShouldNotCacheStaleBook() {
+        //Given
+        AtomicBoolean updated = new AtomicBoolean();
+        when(bookRepository.findById(UPDATED_BOOK_ID)).thenAnswer(invocation -> {
+            Optional<Book> staleBook = Optional.of(prepareBook().setId(UPDATED_BOOK_ID));
+            if (updated.compareAndSet(false, true)) {
+                bookService.update(UPDATED_BOOK_ID, prepareCreateBookRequestDto());
+            }
+            return staleBook;
+        });
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation ->
+                invocation.getArgument(0));
+        when(bookMapper.toDto(any(Book.class))).thenReturn(prepareBookDto());
+
+        //When
+        bookService.findById(UPDATED_BOOK_ID);
+
+        //Then
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS_CACHE).get(UPDATED_BOOK_ID));
+        bookService.findById(UPDATED_BOOK_ID);
+        verify(bookRepository, times(3)).findById(UPDATED_BOOK_ID);
+    }
+
+    @Configuration
+    @Import({CacheConfig.class, BookServiceImpl.class, SingleFlight.class})
+    static class TestConfig {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheConfig.BOOKS_CACHE);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
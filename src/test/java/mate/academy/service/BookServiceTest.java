@@ -5,41 +5,55 @@ import static mate.academy.config.DatabaseHelper.prepareBookDto;
 import static mate.academy.config.DatabaseHelper.prepareBookDtoWithoutCategories;
 import static mate.academy.config.DatabaseHelper.prepareCreateBookRequestDto;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import mate.academy.dto.book.BookCursorPageDto;
 import mate.academy.dto.book.BookDto;
 import mate.academy.dto.book.BookDtoWithoutCategoryIds;
+import mate.academy.dto.book.BookPageCursor;
 import mate.academy.dto.book.BookSearchParameters;
 import mate.academy.dto.book.CreateBookRequestDto;
+import mate.academy.event.BooksChangedEvent;
 import mate.academy.exception.EntityNotFoundException;
+import mate.academy.lib.SingleFlight;
 import mate.academy.mapper.BookMapper;
 import mate.academy.model.Book;
 import mate.academy.repository.book.BookRepository;
 import mate.academy.repository.book.BookSpecificationBuilder;
+import mate.academy.search.BookSearchIndex;
 import mate.academy.service.impl.BookServiceImpl;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @ExtendWith(MockitoExtension.class)
 class BookServiceTest {
@@ -53,6 +67,14 @@ class BookServiceTest {
     private BookMapper bookMapper;
     @Mock
     private BookSpecificationBuilder bookSpecificationBuilder;
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private CacheManager cacheManager;
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry());
     @InjectMocks
     private BookServiceImpl bookService;
 
@@ -74,6 +96,7 @@ class BookServiceTest {
 
         //Then
         assertEquals(expected, actual);
+        verify(bookSearchIndex).index(expected);
     }
 
     @Test
@@ -104,6 +127,51 @@ class BookServiceTest {
         verifyNoMoreInteractions(bookRepository, bookMapper);
     }
 
+    @Test
+    @DisplayName("Verify findAllAfter() with empty cursor returns first page and next cursor")
+    void findAllAfter_EmptyCursor_ReturnsFirstPageWithNextCursor() {
+        //Given
+        Pageable pageable = PageRequest.of(0, 1, Sort.by("title"));
+        Book book = prepareBook();
+        BookDto bookDto = prepareBookDto();
+        when(bookRepository.findFirstPageIds(
+                PageRequest.of(0, 2, Sort.by("title").and(Sort.by("id")))))
+                .thenReturn(List.of(BOOK_ID, 2L));
+        when(bookRepository.findAllWithCategoriesInOrder(List.of(BOOK_ID)))
+                .thenReturn(List.of(book));
+        when(bookMapper.toDto(book)).thenReturn(bookDto);
+
+        //When
+        BookCursorPageDto actual = bookService.findAllAfter("", pageable);
+
+        //Then
+        assertEquals(List.of(bookDto), actual.getBooks());
+        assertEquals(new BookPageCursor(BookPageCursor.SortKey.TITLE, BOOK_TITLE_1, BOOK_ID),
+                BookPageCursor.decode(actual.getNextCursor()));
+    }
+
+    @Test
+    @DisplayName("Verify findAllAfter() seeks after cursor and returns last page")
+    void findAllAfter_ValidCursor_ReturnsPageAfterCursor() {
+        //Given
+        Pageable pageable = PageRequest.of(0, 10);
+        String cursor = new BookPageCursor(BookPageCursor.SortKey.TITLE, "Book 0", 7L).encode();
+        Book book = prepareBook();
+        BookDto bookDto = prepareBookDto();
+        when(bookRepository.findIdsAfterTitle("Book 0", 7L, PageRequest.of(0, 11)))
+                .thenReturn(List.of(BOOK_ID));
+        when(bookRepository.findAllWithCategoriesInOrder(List.of(BOOK_ID)))
+                .thenReturn(List.of(book));
+        when(bookMapper.toDto(book)).thenReturn(bookDto);
+
+        //When
+        BookCursorPageDto actual = bookService.findAllAfter(cursor, pageable);
+
+        //Then
+        assertEquals(List.of(bookDto), actual.getBooks());
+        assertNull(actual.getNextCursor());
+    }
+
     @Test
     @DisplayName("Verify findById() displays right book")
     void findById_ValidBookId_ShouldFindBook() {
@@ -146,6 +214,42 @@ class BookServiceTest {
         doNothing().when(bookRepository).deleteById(BOOK_ID);
         bookService.deleteById(BOOK_ID);
         verify(bookRepository, times(1)).deleteById(BOOK_ID);
+        verify(eventPublisher, times(1))
+                .publishEvent(new BooksChangedEvent(List.of(BOOK_ID), true));
+        verify(bookSearchIndex, times(1)).remove(BOOK_ID);
+    }
+
+    @Test
+    @DisplayName("Verify deleteById() removes book from search index after commit")
+    void deleteById_InTransaction_ShouldRemoveFromIndexAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookService.deleteById(BOOK_ID);
+            verifyNoInteractions(bookSearchIndex);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(bookSearchIndex, times(1)).remove(BOOK_ID);
+    }
+
+    @Test
+    @DisplayName("Verify fullTextSearch() answers from search index")
+    void fullTextSearch_ValidQuery_ShouldReturnBooksFromIndex() {
+        //Given
+        Pageable pageable = PageRequest.of(1, 5);
+        List<BookDto> expected = List.of(prepareBookDto());
+        when(bookSearchIndex.search(BOOK_TITLE_1, 5L, 5)).thenReturn(expected);
+
+        //When
+        List<BookDto> actual = bookService.fullTextSearch(BOOK_TITLE_1, pageable);
+
+        //Then
+        assertEquals(expected, actual);
+        verifyNoMoreInteractions(bookRepository);
     }
 
     @Test
@@ -215,6 +319,8 @@ class BookServiceTest {
 
         //Then
         assertEquals(expected, actual);
+        verify(eventPublisher, times(1))
+                .publishEvent(new BooksChangedEvent(List.of(BOOK_ID), true));
     }
 
     @Test
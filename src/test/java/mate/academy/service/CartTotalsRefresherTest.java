@@ -0,0 +1,67 @@
+package mate.academy.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import mate.academy.event.BooksChangedEvent;
+import mate.academy.repository.cart.ShoppingCartRepository;
+import mate.academy.repository.cartitem.CartItemRepository;
+import mate.academy.service.impl.CartTotalsRefresher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class CartTotalsRefresherTest {
+    private static final Long BOOK_ID = 1L;
+    private static final int BATCH_SIZE = 2;
+    @Mock
+    private ShoppingCartRepository shoppingCartRepository;
+    @Mock
+    private CartItemRepository cartItemRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private CartTotalsRefresher cartTotalsRefresher;
+
+    @BeforeEach
+    void setUp() {
+        cartTotalsRefresher = new CartTotalsRefresher(shoppingCartRepository,
+                cartItemRepository, transactionManager, Runnable::run, BATCH_SIZE);
+    }
+
+    @Test
+    @DisplayName("Price change refreshes item prices and totals of carts in batches")
+    void onBooksChanged_PricesChanged_ShouldRefreshCartsInBatches() {
+        when(shoppingCartRepository.findIdsByBookIdIn(List.of(BOOK_ID), 0L, BATCH_SIZE))
+                .thenReturn(List.of(1L, 2L));
+        when(shoppingCartRepository.findIdsByBookIdIn(List.of(BOOK_ID), 2L, BATCH_SIZE))
+                .thenReturn(List.of(3L));
+
+        cartTotalsRefresher.onBooksChanged(new BooksChangedEvent(List.of(BOOK_ID), true));
+
+        verify(shoppingCartRepository, times(1)).lockIdsByIdIn(List.of(1L, 2L));
+        verify(cartItemRepository, times(1)).refreshPricesByShoppingCartIdInAndBookIdIn(
+                List.of(1L, 2L), List.of(BOOK_ID));
+        verify(cartItemRepository, times(1)).refreshPricesByShoppingCartIdInAndBookIdIn(
+                List.of(3L), List.of(BOOK_ID));
+        verify(shoppingCartRepository, times(1)).refreshTotalsByIdIn(List.of(1L, 2L));
+        verify(shoppingCartRepository, times(1)).refreshTotalsByIdIn(List.of(3L));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Book change without price change keeps cart totals")
+    void onBooksChanged_PricesUnchanged_ShouldNotRefreshCarts() {
+        cartTotalsRefresher.onBooksChanged(new BooksChangedEvent(List.of(BOOK_ID), false));
+
+        verifyNoInteractions(shoppingCartRepository, cartItemRepository, transactionManager);
+    }
+}
@@ -0,0 +1,209 @@
+package mate.academy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import mate.academy.dto.order.OrderResponseDto;
+import mate.academy.dto.order.ShippingAddressRequestDto;
+import mate.academy.exception.EntityNotFoundException;
+import mate.academy.exception.IdempotencyKeyConflictException;
+import mate.academy.exception.InvalidIdempotencyKeyException;
+import mate.academy.lib.SingleFlight;
+import mate.academy.model.IdempotencyRecord;
+import mate.academy.repository.idempotency.IdempotencyRecordRepository;
+import mate.academy.service.impl.IdempotencyServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceImplTest {
+    private static final String USER_EMAIL = "john@test.com";
+    private static final String KEY = "5b7c0e1a-checkout";
+    private static final Long RECORD_ID = 1L;
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry());
+    @InjectMocks
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(idempotencyService, "ttl", Duration.ofHours(24));
+        ReflectionTestUtils.setField(idempotencyService, "lockTimeout", Duration.ofMinutes(1));
+        Mockito.lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0)
+                        .doInTransaction(null));
+        Mockito.lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        Mockito.lenient().when(idempotencyRecordRepository.saveAndFlush(any()))
+                .thenAnswer(invocation -> invocation.<IdempotencyRecord>getArgument(0)
+                        .setId(RECORD_ID));
+        Mockito.lenient().when(idempotencyRecordRepository.save(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("Request without key runs the action and stores nothing")
+    void execute_WithoutKey_ShouldRunActionWithoutStoring() {
+        OrderResponseDto expected = prepareResponse();
+
+        OrderResponseDto actual = idempotencyService.execute(USER_EMAIL, null, prepareRequest(),
+                OrderResponseDto.class, () -> expected);
+
+        assertEquals(expected, actual);
+        Mockito.verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    @DisplayName("Repeated key returns the first response without running the action again")
+    void execute_RepeatedKey_ShouldReplayStoredResponse() {
+        AtomicInteger calls = new AtomicInteger();
+        OrderResponseDto expected = prepareResponse();
+        when(idempotencyRecordRepository.findByUserEmailAndIdempotencyKey(USER_EMAIL, KEY))
+                .thenReturn(Optional.empty());
+
+        OrderResponseDto first = idempotencyService.execute(USER_EMAIL, KEY, prepareRequest(),
+                OrderResponseDto.class, () -> {
+                    calls.incrementAndGet();
+                    return expected;
+                });
+        OrderResponseDto second = idempotencyService.execute(USER_EMAIL, KEY, prepareRequest(),
+                OrderResponseDto.class, () -> {
+                    calls.incrementAndGet();
+                    return prepareResponse().setId(2L);
+                });
+
+        assertEquals(expected, first);
+        assertEquals(expected, second);
+        assertEquals(1, calls.get());
+        verify(idempotencyRecordRepository, times(1))
+                .findByUserEmailAndIdempotencyKey(USER_EMAIL, KEY);
+    }
+
+    @Test
+    @DisplayName("Completed record stored by another instance is replayed")
+    void execute_CompletedRecordInDatabase_ShouldReplayWithoutAction() throws Exception {
+        OrderResponseDto expected = prepareResponse();
+        IdempotencyRecord record = prepareRecord(IdempotencyRecord.Status.COMPLETED,
+                hash(prepareRequest()))
+                .setResponseBody(objectMapper.writeValueAsString(expected));
+        when(idempotencyRecordRepository.findByUserEmailAndIdempotencyKey(USER_EMAIL, KEY))
+                .thenReturn(Optional.of(record));
+
+        OrderResponseDto actual = idempotencyService.execute(USER_EMAIL, KEY, prepareRequest(),
+                OrderResponseDto.class, () -> {
+                    throw new IllegalStateException("Action must not run");
+                });
+
+        assertEquals(expected, actual);
+        verify(idempotencyRecordRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Key reused with a different request throws InvalidIdempotencyKeyException")
+    void execute_KeyReusedWithDifferentRequest_ShouldThrowException() throws Exception {
+        IdempotencyRecord record = prepareRecord(IdempotencyRecord.Status.COMPLETED,
+                hash(prepareRequest()))
+                .setResponseBody(objectMapper.writeValueAsString(prepareResponse()));
+        when(idempotencyRecordRepository.findByUserEmailAndIdempotencyKey(USER_EMAIL, KEY))
+                .thenReturn(Optional.of(record));
+        ShippingAddressRequestDto otherRequest = new ShippingAddressRequestDto()
+                .setShippingAddress("Lviv, Rynok Square 1");
+
+        assertThrows(InvalidIdempotencyKeyException.class,
+                () -> idempotencyService.execute(USER_EMAIL, KEY, otherRequest,
+                        OrderResponseDto.class, this::prepareResponse));
+    }
+
+    @Test
+    @DisplayName("Key still in progress throws IdempotencyKeyConflictException")
+    void execute_KeyInProgress_ShouldThrowConflict() throws Exception {
+        IdempotencyRecord record = prepareRecord(IdempotencyRecord.Status.IN_PROGRESS,
+                hash(prepareRequest()));
+        when(idempotencyRecordRepository.findByUserEmailAndIdempotencyKey(USER_EMAIL, KEY))
+                .thenReturn(Optional.of(record));
+
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> idempotencyService.execute(USER_EMAIL, KEY, prepareRequest(),
+                        OrderResponseDto.class, this::prepareResponse));
+    }
+
+    @Test
+    @DisplayName("Failed action releases the key so the client can retry")
+    void execute_ActionFails_ShouldReleaseKey() {
+        when(idempotencyRecordRepository.findByUserEmailAndIdempotencyKey(USER_EMAIL, KEY))
+                .thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> idempotencyService.execute(USER_EMAIL, KEY, prepareRequest(),
+                        OrderResponseDto.class, () -> {
+                            throw new EntityNotFoundException("Can't find shopping cart");
+                        }));
+        verify(idempotencyRecordRepository, times(1)).deleteById(RECORD_ID);
+    }
+
+    private ShippingAddressRequestDto prepareRequest() {
+        return new ShippingAddressRequestDto().setShippingAddress("Kyiv, Khreshchatyk 1");
+    }
+
+    private OrderResponseDto prepareResponse() {
+        return new OrderResponseDto()
+                .setId(1L)
+                .setUserId(1L)
+                .setTotal(BigDecimal.valueOf(100))
+                .setOrderStatus("NEW");
+    }
+
+    private IdempotencyRecord prepareRecord(IdempotencyRecord.Status status, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        return new IdempotencyRecord()
+                .setId(RECORD_ID)
+                .setUserEmail(USER_EMAIL)
+                .setIdempotencyKey(KEY)
+                .setRequestHash(requestHash)
+                .setStatus(status)
+                .setCreatedAt(now)
+                .setExpiresAt(now.plusHours(24));
+    }
+
+    private String hash(Object request) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsBytes(request)));
+    }
+}
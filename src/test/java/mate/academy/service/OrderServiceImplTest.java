@@ -14,6 +14,8 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -24,6 +26,7 @@ import mate.academy.dto.order.OrderResponseDto;
 import mate.academy.dto.order.OrderStatusDto;
 import mate.academy.dto.order.ShippingAddressRequestDto;
 import mate.academy.dto.orderitem.OrderItemResponseDto;
+import mate.academy.dto.user.UserIdentity;
 import mate.academy.exception.EntityNotFoundException;
 import mate.academy.mapper.OrderItemMapper;
 import mate.academy.mapper.OrderMapper;
@@ -35,15 +38,15 @@ import mate.academy.model.ShoppingCart;
 import mate.academy.model.User;
 import mate.academy.repository.cart.ShoppingCartRepository;
 import mate.academy.repository.order.OrderRepository;
-import mate.academy.repository.orderitem.OrderItemRepository;
-import mate.academy.repository.user.UserRepository;
 import mate.academy.service.impl.OrderServiceImpl;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -60,17 +63,19 @@ class OrderServiceImplTest {
     @Mock
     private OrderRepository orderRepository;
     @Mock
-    private UserRepository userRepository;
+    private UserIdentityService userIdentityService;
     @Mock
     private ShoppingCartRepository shoppingCartRepository;
     @Mock
-    private OrderItemRepository orderItemRepository;
+    private ShoppingCartService shoppingCartService;
     @Mock
     private OrderMapper orderMapper;
     @Mock
     private OrderItemMapper orderItemMapper;
     @Mock
     private Authentication authentication;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -79,24 +84,40 @@ class OrderServiceImplTest {
     void placeOrder_validUser_Success() {
         User user = prepareUser();
         Book book = prepareBook();
+        Book secondBook = prepareBook().setId(2L).setPrice(new BigDecimal("19.99"));
         CartItem cartItem = prepareCartItem(book, CART_ITEM_ID, CART_ITEM_QTY);
-        ShoppingCart shoppingCart = prepareShoppingCart(user, Set.of(cartItem));
-        when(authentication.getName()).thenReturn(user.getEmail());
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        CartItem secondCartItem = prepareCartItem(secondBook, 2L, 3);
+        ShoppingCart shoppingCart = prepareShoppingCart(user, Set.of(cartItem, secondCartItem));
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
         when(shoppingCartRepository.findShoppingCartByUserId(user.getId()))
                 .thenReturn(Optional.of(shoppingCart));
-        Order order = prepareOrder(user, Order.Status.NEW, ORDER_ID);
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        OrderResponseDto expected = new OrderResponseDto().setUserId(user.getId());
+        when(orderMapper.toResponseDto(any(Order.class))).thenReturn(expected);
 
         ShippingAddressRequestDto shippingAddressRequest = new ShippingAddressRequestDto()
                 .setShippingAddress("Kyiv, Maydan Nezalezhnosty 1");
-        orderService.placeOrder(authentication, shippingAddressRequest);
+        final OrderResponseDto actual =
+                orderService.placeOrder(authentication, shippingAddressRequest);
+
+        ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository, times(1)).saveAndFlush(orderCaptor.capture());
+        Order order = orderCaptor.getValue();
+        assertEquals(book.getPrice().add(new BigDecimal("59.97")), order.getTotal());
+        assertEquals(2, order.getOrderItems().size());
+        assertEquals(user, order.getUser());
+        verify(userIdentityService, times(1)).getIdentity(authentication);
+        verify(shoppingCartService, times(1)).evictCart(user.getId());
+        verify(shoppingCartRepository, times(1)).findShoppingCartByUserId(user.getId());
         verify(shoppingCartRepository, times(1)).delete(shoppingCart);
+        assertEquals(expected, actual);
     }
 
     @Test
     @DisplayName("Place order for invalid user should return EntityNotFoundException")
     void placeOrder_invalidUser_shouldReturnEntityNotFoundException() {
+        when(userIdentityService.getIdentity(authentication))
+                .thenThrow(new EntityNotFoundException("Can not find user by email"));
         ShippingAddressRequestDto shippingAddressRequest = new ShippingAddressRequestDto()
                 .setShippingAddress("Kyiv, Maydan Nezalezhnosty 1");
         EntityNotFoundException entityNotFoundException = assertThrows(
@@ -123,8 +144,8 @@ class OrderServiceImplTest {
         orders.add(order);
         Pageable pageable = PageRequest.of(0, 10);
         Page<Order> ordersPage = new PageImpl<>(orders, pageable, orders.size());
-        when(authentication.getName()).thenReturn(user.getEmail());
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
         when(orderRepository.findAllByUserId(user.getId(), pageable)).thenReturn(ordersPage);
         when(orderMapper.toResponseDto(order)).thenReturn(orderResponseDto);
 
@@ -142,8 +163,8 @@ class OrderServiceImplTest {
         User user = prepareUser();
         Order order = prepareOrder(user, Order.Status.NEW, ORDER_ID)
                 .setOrderItems(Set.of(prepareOrderItem()));
-        when(authentication.getName()).thenReturn(user.getEmail());
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
         when(orderRepository.findByUserIdAndId(USER_ID, ORDER_ID)).thenReturn(Optional.of(order));
         when(orderItemMapper.toResponseDto(any(OrderItem.class))).thenReturn(orderItemResponseDto);
 
@@ -157,6 +178,8 @@ class OrderServiceImplTest {
     @DisplayName("Get all order items for user with invalid order id should"
             + "return EntityNotFoundException")
     void getAllOrderItems_invalidUser_shouldThrowEntityNotFoundException() {
+        when(userIdentityService.getIdentity(authentication))
+                .thenThrow(new EntityNotFoundException("Can not find user by email"));
         Pageable pageable = PageRequest.of(0, 10);
         EntityNotFoundException entityNotFoundException = assertThrows(
                 EntityNotFoundException.class,
@@ -174,8 +197,8 @@ class OrderServiceImplTest {
         User user = prepareUser();
         Order order = prepareOrder(user, Order.Status.NEW, ORDER_ID)
                         .setOrderItems(Set.of(prepareOrderItem()));
-        when(authentication.getName()).thenReturn(user.getEmail());
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
         when(orderRepository.findByUserIdAndId(USER_ID, ORDER_ID)).thenReturn(Optional.of(order));
         when(orderItemMapper.toResponseDto(any(OrderItem.class))).thenReturn(orderItemResponseDto);
 
@@ -201,8 +224,6 @@ class OrderServiceImplTest {
                 .setOrderItems(Set.of(prepareOrderItemResponseDto()));
         Order order = prepareOrder(user, Order.Status.NEW, ORDER_ID);
 
-        when(authentication.getName()).thenReturn(user.getEmail());
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
         when(orderRepository.findById(ORDER_ID)).thenReturn(Optional.of(order));
 
         when(orderRepository.save(any(Order.class))).thenReturn(updatedOrder);
@@ -211,4 +232,8 @@ class OrderServiceImplTest {
                 .updateOrderStatus(authentication, ORDER_ID, statusDto);
         assertEquals(expected, actual);
     }
+
+    private UserIdentity prepareIdentity(User user) {
+        return new UserIdentity(user.getId(), user.getEmail(), Set.of("USER"));
+    }
 }
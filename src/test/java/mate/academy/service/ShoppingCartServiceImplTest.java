@@ -1,52 +1,81 @@
 package mate.academy.service;
 
-import static mate.academy.config.DatabaseHelper.prepareBook;
-import static mate.academy.config.DatabaseHelper.prepareCartItem;
 import static mate.academy.config.DatabaseHelper.prepareShoppingCart;
 import static mate.academy.config.DatabaseHelper.prepareUser;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.ArgumentMatchers.any;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
-import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import mate.academy.dto.cart.CartBatchRequestDto;
+import mate.academy.dto.cart.CartSummaryDto;
 import mate.academy.dto.cart.ShoppingCartDto;
 import mate.academy.dto.cartitem.CartItemQuantityRequestDto;
 import mate.academy.dto.cartitem.CartItemRequestDto;
 import mate.academy.dto.cartitem.CartItemResponseDto;
-import mate.academy.mapper.ShoppingCartMapper;
-import mate.academy.model.Book;
+import mate.academy.dto.user.UserIdentity;
+import mate.academy.exception.EntityNotFoundException;
+import mate.academy.mapper.CartItemMapper;
+import mate.academy.mapper.impl.CartItemMapperImpl;
 import mate.academy.model.CartItem;
 import mate.academy.model.ShoppingCart;
 import mate.academy.model.User;
+import mate.academy.repository.EntityIdAllocator;
+import mate.academy.repository.book.BookRepository;
+import mate.academy.repository.book.BookSummary;
+import mate.academy.repository.cart.CartItemView;
 import mate.academy.repository.cart.ShoppingCartRepository;
 import mate.academy.repository.cartitem.CartItemRepository;
-import mate.academy.repository.user.UserRepository;
 import mate.academy.service.impl.ShoppingCartServiceImpl;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.security.core.Authentication;
 
 @ExtendWith(MockitoExtension.class)
 class ShoppingCartServiceImplTest {
     private static final Long BOOK_ID = 1L;
+    private static final Long CART_ITEM_ID = 1L;
+    private static final Long NEW_CART_ITEM_ID = 2L;
+    private static final Long SHOPPING_CART_ID = 1L;
+    private static final BigDecimal BOOK_PRICE = BigDecimal.valueOf(100);
     @Mock
     private ShoppingCartRepository shoppingCartRepository;
+    @Spy
+    private CartItemMapper cartItemMapper = new CartItemMapperImpl();
     @Mock
-    private ShoppingCartMapper shoppingCartMapper;
-    @Mock
-    private UserRepository userRepository;
+    private UserIdentityService userIdentityService;
     @Mock
     private CartItemRepository cartItemRepository;
     @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private EntityIdAllocator entityIdAllocator;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    @Mock
     private Authentication authentication;
     @InjectMocks
     private ShoppingCartServiceImpl shoppingCartService;
@@ -54,96 +83,312 @@ class ShoppingCartServiceImplTest {
     @Test
     @DisplayName("Add Item to Shopping Cart")
     void addItemToCart_ValidCartItemRequestDto_Success() {
+        User user = prepareUser();
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
+        when(entityIdAllocator.allocate(CartItem.class, 1)).thenReturn(List.of(CART_ITEM_ID));
+        when(shoppingCartRepository.addToTotalsByUserId(user.getId(), BOOK_ID, 1))
+                .thenReturn(1);
         CartItemRequestDto cartItemRequestDto = new CartItemRequestDto()
                 .setBookId(BOOK_ID)
                 .setQuantity(1);
-        CartItem cartItem = prepareCartItem(prepareBook(), 1L, cartItemRequestDto.getQuantity());
+
+        shoppingCartService.addItemToCart(authentication, cartItemRequestDto);
+        verify(cartItemRepository, times(1)).upsertByUserId(CART_ITEM_ID, user.getId(),
+                BOOK_ID, 1);
+        verify(shoppingCartRepository, times(1)).addToTotalsByUserId(user.getId(), BOOK_ID, 1);
+        verifyNoInteractions(bookRepository, jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Add Item to Shopping Cart creates the cart on the first add")
+    void addItemToCart_WithoutShoppingCart_ShouldCreateCart() {
         User user = prepareUser();
-        ShoppingCart shoppingCart = prepareShoppingCart(user, Set.of(cartItem));
-        when(authentication.getName()).thenReturn(user.getEmail());
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
-        when(shoppingCartRepository.findShoppingCartByUserId(user.getId()))
-                .thenReturn(Optional.of(shoppingCart));
-        when(cartItemRepository.save(any(CartItem.class))).thenReturn(cartItem);
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
+        when(entityIdAllocator.allocate(CartItem.class, 1)).thenReturn(List.of(CART_ITEM_ID));
+        when(shoppingCartRepository.addToTotalsByUserId(user.getId(), BOOK_ID, 1))
+                .thenReturn(0, 1);
+        when(bookRepository.existsById(BOOK_ID)).thenReturn(true);
+        when(entityIdAllocator.allocate(ShoppingCart.class, 1))
+                .thenReturn(List.of(SHOPPING_CART_ID));
+        CartItemRequestDto cartItemRequestDto = new CartItemRequestDto()
+                .setBookId(BOOK_ID)
+                .setQuantity(1);
 
         shoppingCartService.addItemToCart(authentication, cartItemRequestDto);
-        verify(shoppingCartRepository, times(1)).findShoppingCartByUserId(user.getId());
-        assertEquals(1, shoppingCart.getCartItems().size());
-        verify(cartItemRepository).save(cartItem);
+        verify(jdbcTemplate, times(1)).update(startsWith("INSERT INTO shopping_carts"),
+                eq(SHOPPING_CART_ID), eq(user.getId()));
+        verify(shoppingCartRepository, times(2)).addToTotalsByUserId(user.getId(), BOOK_ID, 1);
+        verify(cartItemRepository, times(1)).upsertByUserId(CART_ITEM_ID, user.getId(),
+                BOOK_ID, 1);
+    }
+
+    @Test
+    @DisplayName("Add Item to Shopping Cart throws exception when the retry adds nothing")
+    void addItemToCart_RetryAddsNothing_ShouldThrowException() {
+        User user = prepareUser();
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
+        when(shoppingCartRepository.addToTotalsByUserId(user.getId(), BOOK_ID, 1))
+                .thenReturn(0, 0);
+        when(bookRepository.existsById(BOOK_ID)).thenReturn(true);
+        when(entityIdAllocator.allocate(ShoppingCart.class, 1))
+                .thenReturn(List.of(SHOPPING_CART_ID));
+        CartItemRequestDto cartItemRequestDto = new CartItemRequestDto()
+                .setBookId(BOOK_ID)
+                .setQuantity(1);
+
+        assertThrows(EntityNotFoundException.class,
+                () -> shoppingCartService.addItemToCart(authentication, cartItemRequestDto));
+        verifyNoInteractions(cartItemRepository);
+    }
+
+    @Test
+    @DisplayName("Add Item to Shopping Cart with unknown book throws exception")
+    void addItemToCart_UnknownBook_ShouldThrowException() {
+        User user = prepareUser();
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
+        when(bookRepository.existsById(BOOK_ID)).thenReturn(false);
+        CartItemRequestDto cartItemRequestDto = new CartItemRequestDto()
+                .setBookId(BOOK_ID)
+                .setQuantity(1);
+
+        assertThrows(EntityNotFoundException.class,
+                () -> shoppingCartService.addItemToCart(authentication, cartItemRequestDto));
+        verifyNoInteractions(jdbcTemplate, cartItemRepository);
     }
 
     @Test
     @DisplayName("Get all cart items in Shopping Cart")
     void getAllCartItems_ValidAuthentication_Success() {
-        Book book2 = new Book()
-                .setId(2L)
-                .setAuthor("Author 2")
-                .setTitle("Test Book 2")
-                .setPrice(BigDecimal.valueOf(300))
-                .setIsbn("54321");
-
-        CartItem cartItem1 = prepareCartItem(prepareBook(), 1L, 1);
-        CartItem cartItem2 = prepareCartItem(book2, 2L, 1);
-
-        Set<CartItem> cartItems = new HashSet<>();
-        cartItems.add(cartItem1);
-        cartItems.add(cartItem2);
-
-        CartItemResponseDto cartItemResponseDto1 = new CartItemResponseDto()
-                .setId(1L)
-                .setBookId(cartItem1.getBook().getId())
-                .setQuantity(cartItem1.getQuantity())
-                .setBookTitle(cartItem1.getBook().getTitle());
-        CartItemResponseDto cartItemResponseDto2 = new CartItemResponseDto()
-                .setId(2L)
-                .setBookId(cartItem2.getBook().getId())
-                .setQuantity(cartItem2.getQuantity())
-                .setBookTitle(cartItem2.getBook().getTitle());
-        Set<CartItemResponseDto> cartItemResponseDtoSet =
-                Set.of(cartItemResponseDto1, cartItemResponseDto2);
         User user = prepareUser();
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
+        when(shoppingCartRepository.findCartItemViewsByUserId(user.getId()))
+                .thenReturn(List.of(new CartItemView(SHOPPING_CART_ID, 2, 4,
+                                BigDecimal.valueOf(400), 1L, BOOK_ID, "Test Book", BOOK_PRICE, 1),
+                        new CartItemView(SHOPPING_CART_ID, 2, 4, BigDecimal.valueOf(400), 2L, 2L,
+                                "Test Book 2", BOOK_PRICE, 3)));
+        Set<CartItemResponseDto> expected = Set.of(
+                new CartItemResponseDto().setId(1L).setBookId(BOOK_ID)
+                        .setBookTitle("Test Book").setQuantity(1),
+                new CartItemResponseDto().setId(2L).setBookId(2L)
+                        .setBookTitle("Test Book 2").setQuantity(3));
 
-        ShoppingCartDto shoppingCartDto = new ShoppingCartDto();
-        shoppingCartDto.setUserId(user.getId());
-        shoppingCartDto.setCartItems(cartItemResponseDtoSet);
+        ShoppingCartDto actual = shoppingCartService.getAllCartItems(authentication);
 
-        ShoppingCart shoppingCart = prepareShoppingCart(user, cartItems);
+        assertEquals(SHOPPING_CART_ID, actual.getId());
+        assertEquals(user.getId(), actual.getUserId());
+        assertEquals(expected, actual.getCartItems());
+        assertEquals(2, actual.getItemCount());
+        assertEquals(4, actual.getTotalQuantity());
+        assertEquals(BigDecimal.valueOf(400), actual.getSubtotal());
+    }
+
+    @Test
+    @DisplayName("Get cart items of a user without Shopping Cart")
+    void getAllCartItems_WithoutShoppingCart_ShouldReturnEmptyCart() {
+        User user = prepareUser();
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
+        when(shoppingCartRepository.findCartItemViewsByUserId(user.getId()))
+                .thenReturn(List.of());
 
-        when(authentication.getName()).thenReturn(user.getEmail());
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
-        when(shoppingCartRepository.findShoppingCartByUserId(user.getId()))
-                .thenReturn(Optional.of(shoppingCart));
-        when(shoppingCartMapper.toDto(shoppingCart)).thenReturn(shoppingCartDto);
-        when(shoppingCartService.getAllCartItems(authentication)).thenReturn(shoppingCartDto);
         ShoppingCartDto actual = shoppingCartService.getAllCartItems(authentication);
 
-        assertEquals(2, actual.getCartItems().size());
-        assertEquals(shoppingCartDto.getCartItems(), actual.getCartItems());
+        assertNull(actual.getId());
+        assertEquals(BigDecimal.ZERO, actual.getSubtotal());
+        assertEquals(Set.of(), actual.getCartItems());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Get summary of Shopping Cart")
+    void getSummary_ValidAuthentication_Success() {
+        User user = prepareUser();
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
+        CartSummaryDto expected = new CartSummaryDto(SHOPPING_CART_ID, user.getId(), 2, 4,
+                BigDecimal.valueOf(400));
+        when(shoppingCartRepository.findSummaryByUserId(user.getId()))
+                .thenReturn(Optional.of(expected));
+
+        CartSummaryDto actual = shoppingCartService.getSummary(authentication);
+
+        assertEquals(expected, actual);
+        verifyNoInteractions(cartItemRepository);
+    }
+
+    @Test
+    @DisplayName("Get summary of a user without Shopping Cart")
+    void getSummary_WithoutShoppingCart_ShouldReturnEmptySummary() {
+        User user = prepareUser();
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
+        when(shoppingCartRepository.findSummaryByUserId(user.getId()))
+                .thenReturn(Optional.empty());
+
+        CartSummaryDto actual = shoppingCartService.getSummary(authentication);
+
+        assertEquals(new CartSummaryDto(null, user.getId(), 0, 0, BigDecimal.ZERO), actual);
     }
 
     @Test
     @DisplayName("Update quantity of existing cart item")
     void updateBookQuantity_AllValidData_Success() {
         User user = prepareUser();
-        CartItem existingCartItem = prepareCartItem(prepareBook(), 1L, 1);
-        ShoppingCart shoppingCart = prepareShoppingCart(user, Set.of(existingCartItem));
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
+        when(shoppingCartRepository.setQuantityInTotalsByUserId(user.getId(), CART_ITEM_ID, 3))
+                .thenReturn(1);
 
-        when(authentication.getName()).thenReturn(user.getEmail());
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
-        when(shoppingCartRepository.findShoppingCartByUserId(user.getId()))
-                .thenReturn(Optional.of(shoppingCart));
-        when(cartItemRepository.findByIdAndShoppingCartId(existingCartItem.getId(),
-                shoppingCart.getId())).thenReturn(Optional.of(existingCartItem));
+        CartItemQuantityRequestDto newQuantity = new CartItemQuantityRequestDto()
+                .setQuantity(3);
+        shoppingCartService.updateBookQuantity(authentication, CART_ITEM_ID, newQuantity);
+
+        verify(jdbcTemplate, times(1)).update(startsWith("UPDATE cart_items SET quantity"),
+                eq(3), eq(CART_ITEM_ID));
+        verifyNoInteractions(cartItemRepository);
+    }
 
+    @Test
+    @DisplayName("Update quantity of unknown cart item throws exception")
+    void updateBookQuantity_UnknownCartItem_ShouldThrowException() {
+        User user = prepareUser();
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
+        when(shoppingCartRepository.setQuantityInTotalsByUserId(user.getId(), CART_ITEM_ID, 3))
+                .thenReturn(0);
         CartItemQuantityRequestDto newQuantity = new CartItemQuantityRequestDto()
                 .setQuantity(3);
-        shoppingCartService.updateBookQuantity(authentication,
-                existingCartItem.getId(), newQuantity);
 
-        verify(shoppingCartRepository, times(1)).findShoppingCartByUserId(user.getId());
+        assertThrows(EntityNotFoundException.class, () -> shoppingCartService
+                .updateBookQuantity(authentication, CART_ITEM_ID, newQuantity));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Remove unknown cart item keeps cart totals")
+    void removeCartItem_UnknownCartItem_ShouldNotDeleteCartItem() {
+        User user = prepareUser();
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
+        when(shoppingCartRepository.removeFromTotalsByUserId(user.getId(), CART_ITEM_ID))
+                .thenReturn(0);
+
+        shoppingCartService.removeCartItem(authentication, CART_ITEM_ID);
+
+        verifyNoInteractions(cartItemRepository);
+    }
+
+    @Test
+    @DisplayName("Remove cart item subtracts it from cart totals first")
+    void removeCartItem_ExistingCartItem_ShouldDeleteCartItem() {
+        User user = prepareUser();
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
+        when(shoppingCartRepository.removeFromTotalsByUserId(user.getId(), CART_ITEM_ID))
+                .thenReturn(1);
+
+        shoppingCartService.removeCartItem(authentication, CART_ITEM_ID);
+
         verify(cartItemRepository, times(1))
-                .findByIdAndShoppingCartId(existingCartItem.getId(), shoppingCart.getId());
-        verify(cartItemRepository, times(1)).save(existingCartItem);
-        assertEquals(3, newQuantity.getQuantity());
+                .deleteByIdAndShoppingCartUserId(CART_ITEM_ID, user.getId());
+    }
+
+    @Test
+    @DisplayName("Change several cart items at once")
+    void updateCart_ValidRequest_Success() {
+        User user = prepareUser();
+        ShoppingCart shoppingCart = prepareShoppingCart(user, Set.of());
+        BookSummary bookSummary = Mockito.mock(BookSummary.class);
+        when(bookSummary.getId()).thenReturn(BOOK_ID);
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
+        when(bookRepository.findSummariesByIdIn(Set.of(BOOK_ID)))
+                .thenReturn(List.of(bookSummary));
+        when(shoppingCartRepository.findIdByUserId(user.getId()))
+                .thenReturn(Optional.of(shoppingCart.getId()));
+        when(cartItemRepository.findIdsByShoppingCartIdAndIdIn(shoppingCart.getId(),
+                Set.of(CART_ITEM_ID))).thenReturn(List.of(CART_ITEM_ID));
+        when(entityIdAllocator.allocate(CartItem.class, 1)).thenReturn(List.of(NEW_CART_ITEM_ID));
+        when(shoppingCartRepository.findCartItemViewsByUserId(user.getId()))
+                .thenReturn(List.of(new CartItemView(shoppingCart.getId(), 1, 4,
+                        BigDecimal.valueOf(400), CART_ITEM_ID, BOOK_ID, "Test Book", BOOK_PRICE,
+                        4)));
+        CartBatchRequestDto requestDto = new CartBatchRequestDto()
+                .setAdd(List.of(new CartItemRequestDto().setBookId(BOOK_ID).setQuantity(1),
+                        new CartItemRequestDto().setBookId(BOOK_ID).setQuantity(2)))
+                .setUpdate(Map.of(CART_ITEM_ID, new CartItemQuantityRequestDto().setQuantity(4)));
+
+        ShoppingCartDto actual = shoppingCartService.updateCart(authentication, requestDto);
+        assertEquals(Set.of(new CartItemResponseDto().setId(CART_ITEM_ID).setBookId(BOOK_ID)
+                .setBookTitle("Test Book").setQuantity(4)), actual.getCartItems());
+        assertEquals(BigDecimal.valueOf(400), actual.getSubtotal());
+        verify(namedParameterJdbcTemplate).batchUpdate(
+                startsWith(ShoppingCartRepository.ADD_TO_TOTALS_SQL),
+                ArgumentMatchers.<SqlParameterSource[]>argThat(rows -> rows.length == 1
+                        && rows[0].getValue("quantity").equals(3)));
+        verify(namedParameterJdbcTemplate).batchUpdate(
+                startsWith(ShoppingCartRepository.SET_QUANTITY_IN_TOTALS_SQL),
+                ArgumentMatchers.<SqlParameterSource[]>argThat(rows -> rows.length == 1
+                        && rows[0].getValue("id").equals(CART_ITEM_ID)));
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO cart_items"),
+                ArgumentMatchers.<List<Object[]>>argThat(rows -> rows.size() == 1
+                        && rows.get(0)[3].equals(3)));
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE cart_items SET quantity"),
+                ArgumentMatchers.<List<Object[]>>argThat(rows -> rows.size() == 1));
+    }
+
+    @Test
+    @DisplayName("Change several cart items uses the cart created by a concurrent request")
+    void updateCart_CartCreatedConcurrently_ShouldUseExistingCart() {
+        User user = prepareUser();
+        BookSummary bookSummary = Mockito.mock(BookSummary.class);
+        when(bookSummary.getId()).thenReturn(BOOK_ID);
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
+        when(bookRepository.findSummariesByIdIn(Set.of(BOOK_ID)))
+                .thenReturn(List.of(bookSummary));
+        when(shoppingCartRepository.findIdByUserId(user.getId())).thenReturn(Optional.empty());
+        when(entityIdAllocator.allocate(ShoppingCart.class, 1)).thenReturn(List.of(2L));
+        when(jdbcTemplate.update(startsWith("INSERT INTO shopping_carts"), eq(2L),
+                eq(user.getId()))).thenThrow(new DuplicateKeyException("uk_shopping_carts"));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT id FROM shopping_carts"),
+                eq(Long.class), eq(user.getId()))).thenReturn(SHOPPING_CART_ID);
+        when(entityIdAllocator.allocate(CartItem.class, 1)).thenReturn(List.of(NEW_CART_ITEM_ID));
+        CartBatchRequestDto requestDto = new CartBatchRequestDto()
+                .setAdd(List.of(new CartItemRequestDto().setBookId(BOOK_ID).setQuantity(1)));
+
+        shoppingCartService.updateCart(authentication, requestDto);
+
+        verify(namedParameterJdbcTemplate).batchUpdate(
+                startsWith(ShoppingCartRepository.ADD_TO_TOTALS_SQL),
+                ArgumentMatchers.<SqlParameterSource[]>argThat(rows -> rows.length == 1
+                        && rows[0].getValue("cartId").equals(SHOPPING_CART_ID)));
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO cart_items"),
+                ArgumentMatchers.<List<Object[]>>argThat(rows -> rows.size() == 1
+                        && rows.get(0)[1].equals(SHOPPING_CART_ID)));
+    }
+
+    @Test
+    @DisplayName("Change several cart items with unknown book throws exception")
+    void updateCart_UnknownBook_ShouldThrowException() {
+        User user = prepareUser();
+        when(userIdentityService.getIdentity(authentication))
+                .thenReturn(prepareIdentity(user));
+        when(bookRepository.findSummariesByIdIn(Set.of(BOOK_ID))).thenReturn(List.of());
+        CartBatchRequestDto requestDto = new CartBatchRequestDto()
+                .setAdd(List.of(new CartItemRequestDto().setBookId(BOOK_ID).setQuantity(1)));
+
+        assertThrows(EntityNotFoundException.class,
+                () -> shoppingCartService.updateCart(authentication, requestDto));
+        verifyNoInteractions(jdbcTemplate, shoppingCartRepository);
+    }
+
+    private UserIdentity prepareIdentity(User user) {
+        return new UserIdentity(user.getId(), user.getEmail(), Set.of("USER"));
     }
 }
@@ -0,0 +1,134 @@
+package mate.academy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import mate.academy.config.CacheConfig;
+import mate.academy.dto.user.UserIdentity;
+import mate.academy.model.Role;
+import mate.academy.model.User;
+import mate.academy.repository.user.UserRepository;
+import mate.academy.security.AuthenticatedUser;
+import mate.academy.service.impl.UserIdentityServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+@ExtendWith(MockitoExtension.class)
+class UserIdentityServiceImplTest {
+    private static final Long USER_ID = 1L;
+    private static final String EMAIL = "john@test.com";
+    @Mock
+    private UserRepository userRepository;
+    private UserIdentityServiceImpl userIdentityService;
+
+    @BeforeEach
+    void setUp() {
+        userIdentityService = new UserIdentityServiceImpl(userRepository,
+                new ConcurrentMapCacheManager(CacheConfig.USERS_CACHE));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Identity of a token principal is built without user lookup")
+    void getIdentity_AuthenticatedUserPrincipal_ShouldNotQueryRepository() {
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(USER_ID, EMAIL), null,
+                List.of(new SimpleGrantedAuthority("USER")));
+
+        UserIdentity actual = userIdentityService.getIdentity(authentication);
+
+        assertEquals(new UserIdentity(USER_ID, EMAIL, Set.of("USER")), actual);
+        Mockito.verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Repeated lookups in one request and across requests query the user once")
+    void getIdentity_RepeatedLookups_ShouldQueryRepositoryOnce() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(prepareUser()));
+        Authentication authentication = new UsernamePasswordAuthenticationToken(EMAIL, null);
+
+        startRequest();
+        UserIdentity first = userIdentityService.getIdentity(authentication);
+        UserIdentity second = userIdentityService.getIdentity(authentication);
+        startRequest();
+        UserIdentity third = userIdentityService.getIdentity(authentication);
+
+        UserIdentity expected = new UserIdentity(USER_ID, EMAIL, Set.of("USER"));
+        assertEquals(expected, first);
+        assertEquals(expected, second);
+        assertEquals(expected, third);
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+    }
+
+    @Test
+    @DisplayName("Evicted identity is loaded again")
+    void evict_CachedIdentity_ShouldReloadFromRepository() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(prepareUser()));
+        Authentication authentication = new UsernamePasswordAuthenticationToken(EMAIL, null);
+
+        userIdentityService.getIdentity(authentication);
+        userIdentityService.evict(EMAIL);
+        userIdentityService.getIdentity(authentication);
+
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    @DisplayName("Eviction inside a transaction happens after commit")
+    void evict_InTransaction_ShouldEvictAfterCommit() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(prepareUser()));
+        Authentication authentication = new UsernamePasswordAuthenticationToken(EMAIL, null);
+        userIdentityService.getIdentity(authentication);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userIdentityService.evictAll();
+            userIdentityService.getIdentity(authentication);
+            verify(userRepository, times(1)).findByEmail(EMAIL);
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        userIdentityService.getIdentity(authentication);
+
+        verify(userRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    private void startRequest() {
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    private User prepareUser() {
+        Role role = new Role();
+        role.setRoleName(Role.RoleName.USER);
+        return new User()
+                .setId(USER_ID)
+                .setEmail(EMAIL)
+                .setRoles(Set.of(role));
+    }
+}
@@ -0,0 +1,408 @@
+package mate.academy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import mate.academy.dto.book.BookDto;
+import mate.academy.dto.cart.CartBatchRequestDto;
+import mate.academy.dto.cart.CartSummaryDto;
+import mate.academy.dto.cart.ShoppingCartDto;
+import mate.academy.dto.cartitem.CartItemQuantityRequestDto;
+import mate.academy.dto.cartitem.CartItemRequestDto;
+import mate.academy.dto.cartitem.CartItemResponseDto;
+import mate.academy.dto.user.UserIdentity;
+import mate.academy.event.BooksChangedEvent;
+import mate.academy.exception.EntityNotFoundException;
+import mate.academy.model.CartItem;
+import mate.academy.model.ShoppingCart;
+import mate.academy.repository.EntityIdAllocator;
+import mate.academy.repository.book.BookRepository;
+import mate.academy.repository.book.BookSummary;
+import mate.academy.repository.cart.CartItemView;
+import mate.academy.repository.cart.ShoppingCartRepository;
+import mate.academy.repository.cartitem.CartItemRepository;
+import mate.academy.repository.cartitem.DeletedCartItem;
+import mate.academy.service.impl.WriteBehindShoppingCartService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindShoppingCartServiceTest {
+    private static final Long USER_ID = 1L;
+    private static final Long CART_ID = 10L;
+    private static final Long CART_ITEM_ID = 100L;
+    private static final Long BOOK_ID = 5L;
+    private static final Long OTHER_BOOK_ID = 6L;
+    private static final BigDecimal BOOK_PRICE = BigDecimal.valueOf(100);
+    private static final String INSERT_CART_SQL = "INSERT INTO shopping_carts";
+    private static final String INSERT_ITEM_SQL = "INSERT INTO cart_items";
+    private static final String UPDATE_ITEM_SQL = "UPDATE cart_items SET quantity";
+    private static final String DELETE_ITEM_SQL = "UPDATE cart_items SET is_deleted = TRUE";
+    @Mock
+    private UserIdentityService userIdentityService;
+    @Mock
+    private ShoppingCartRepository shoppingCartRepository;
+    @Mock
+    private CartItemRepository cartItemRepository;
+    @Mock
+    private BookService bookService;
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private EntityIdAllocator entityIdAllocator;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private Authentication authentication;
+    @Captor
+    private ArgumentCaptor<List<Object[]>> rows;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private WriteBehindShoppingCartService shoppingCartService;
+
+    @BeforeEach
+    void setUp() {
+        shoppingCartService = new WriteBehindShoppingCartService(userIdentityService,
+                shoppingCartRepository, cartItemRepository, bookService, bookRepository,
+                entityIdAllocator, jdbcTemplate, transactionManager, meterRegistry, 16, 500, 10000,
+                Duration.ofMinutes(10), true);
+        Mockito.lenient().when(userIdentityService.getIdentity(authentication))
+                .thenReturn(new UserIdentity(USER_ID, "john@test.com", Set.of("USER")));
+        Mockito.lenient().when(shoppingCartRepository.findCartItemViewsByUserId(USER_ID))
+                .thenReturn(List.of(new CartItemView(CART_ID, 0, 0, BigDecimal.ZERO, null, null,
+                        null, null, null)));
+        Mockito.lenient().when(bookService.findById(BOOK_ID))
+                .thenReturn(new BookDto().setId(BOOK_ID).setTitle("Book title")
+                        .setPrice(BOOK_PRICE));
+        Mockito.lenient().when(entityIdAllocator.allocate(CartItem.class, 1))
+                .thenReturn(List.of(CART_ITEM_ID));
+    }
+
+    @Test
+    @DisplayName("Repeated adds of a book are written as one insert")
+    void flushPending_RepeatedAdds_ShouldInsertOnce() {
+        addBook(2);
+        addBook(3);
+
+        ShoppingCartDto actual = shoppingCartService.getAllCartItems(authentication);
+        shoppingCartService.flushPending();
+        shoppingCartService.flushPending();
+
+        assertEquals(Set.of(new CartItemResponseDto().setId(CART_ITEM_ID).setBookId(BOOK_ID)
+                .setBookTitle("Book title").setQuantity(5)), actual.getCartItems());
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith(INSERT_ITEM_SQL), rows.capture());
+        assertEquals(List.of(CART_ITEM_ID, CART_ID, BOOK_ID, 5, BOOK_PRICE, 5, BOOK_PRICE),
+                List.of(rows.getValue().get(0)));
+        verify(shoppingCartRepository, times(1)).findCartItemViewsByUserId(USER_ID);
+    }
+
+    @Test
+    @DisplayName("Flushing a cart writes its changes and keeps it cached")
+    void flushCart_DirtyCart_ShouldWriteAndKeepCart() {
+        addBook(1);
+
+        shoppingCartService.flushCart(authentication);
+        shoppingCartService.getAllCartItems(authentication);
+
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith(INSERT_ITEM_SQL), anyList());
+        verify(shoppingCartRepository, times(1)).findCartItemViewsByUserId(USER_ID);
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("UPDATE shopping_carts"),
+                rows.capture());
+        assertEquals(List.of(1, 1, BOOK_PRICE, CART_ID), List.of(rows.getValue().get(0)));
+    }
+
+    @Test
+    @DisplayName("Evicting a cart in a transaction keeps it cached until the commit")
+    void evictCart_InTransaction_ShouldEvictAfterCommit() {
+        addBook(1);
+        shoppingCartService.flushCart(authentication);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            shoppingCartService.evictCart(USER_ID);
+            shoppingCartService.getAllCartItems(authentication);
+            verify(shoppingCartRepository, times(1)).findCartItemViewsByUserId(USER_ID);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        shoppingCartService.getAllCartItems(authentication);
+
+        verify(shoppingCartRepository, times(2)).findCartItemViewsByUserId(USER_ID);
+    }
+
+    @Test
+    @DisplayName("Summary of a cached cart is computed from unflushed changes")
+    void getSummary_CachedCart_ShouldCountUnflushedItems() {
+        addBook(2);
+        addBook(1);
+
+        CartSummaryDto actual = shoppingCartService.getSummary(authentication);
+
+        assertEquals(new CartSummaryDto(CART_ID, USER_ID, 1, 3, BigDecimal.valueOf(300)),
+                actual);
+        verify(shoppingCartRepository, never()).findSummaryByUserId(USER_ID);
+    }
+
+    @Test
+    @DisplayName("Summary of a cart that is not cached is read without loading its items")
+    void getSummary_NotCachedCart_ShouldReadStoredTotals() {
+        CartSummaryDto expected = new CartSummaryDto(CART_ID, USER_ID, 2, 5,
+                BigDecimal.valueOf(500));
+        when(shoppingCartRepository.findSummaryByUserId(USER_ID))
+                .thenReturn(Optional.of(expected));
+
+        CartSummaryDto actual = shoppingCartService.getSummary(authentication);
+
+        assertEquals(expected, actual);
+        verify(shoppingCartRepository, never()).findCartItemViewsByUserId(USER_ID);
+    }
+
+    @Test
+    @DisplayName("Changed book price and title are applied to cached carts")
+    void onBooksChanged_CachedCart_ShouldUseNewPriceAndTitle() {
+        addBook(2);
+        when(bookRepository.findSummariesByIdIn(List.of(BOOK_ID)))
+                .thenReturn(List.of(bookSummary(BOOK_ID, "New title", BigDecimal.valueOf(150))));
+
+        shoppingCartService.onBooksChanged(new BooksChangedEvent(List.of(BOOK_ID), true));
+
+        ShoppingCartDto actual = shoppingCartService.getAllCartItems(authentication);
+        assertEquals(BigDecimal.valueOf(300), actual.getSubtotal());
+        assertEquals(Set.of(new CartItemResponseDto().setId(CART_ITEM_ID).setBookId(BOOK_ID)
+                .setBookTitle("New title").setQuantity(2)), actual.getCartItems());
+    }
+
+    @Test
+    @DisplayName("Reading the cart of a user without one writes nothing")
+    void getAllCartItems_NoCart_ShouldNotCreateCart() {
+        when(shoppingCartRepository.findCartItemViewsByUserId(USER_ID)).thenReturn(List.of());
+
+        ShoppingCartDto actual = shoppingCartService.getAllCartItems(authentication);
+        shoppingCartService.flushPending();
+
+        assertEquals(Set.of(), actual.getCartItems());
+        verify(entityIdAllocator, never()).allocate(ShoppingCart.class, 1);
+        Mockito.verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Failed flush keeps the changes and writes them in the next round")
+    void flushPending_FailedWrite_ShouldRetry() {
+        when(jdbcTemplate.batchUpdate(startsWith(INSERT_ITEM_SQL), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(new int[]{1});
+        addBook(1);
+
+        shoppingCartService.flushPending();
+        shoppingCartService.flushPending();
+        shoppingCartService.flushPending();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith(INSERT_ITEM_SQL), anyList());
+        assertEquals(1.0, meterRegistry.counter("cart.write_behind.flush.failures").count());
+    }
+
+    @Test
+    @DisplayName("Failed first flush of a new cart inserts the cart again on retry")
+    void flushPending_FailedNewCartWrite_ShouldRetryCartInsert() {
+        when(shoppingCartRepository.findCartItemViewsByUserId(USER_ID)).thenReturn(List.of());
+        when(entityIdAllocator.allocate(ShoppingCart.class, 1)).thenReturn(List.of(CART_ID));
+        when(jdbcTemplate.batchUpdate(startsWith(INSERT_CART_SQL), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(new int[]{1});
+        addBook(1);
+
+        shoppingCartService.flushPending();
+        shoppingCartService.flushPending();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith(INSERT_CART_SQL), anyList());
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith(INSERT_ITEM_SQL), anyList());
+    }
+
+    @Test
+    @DisplayName("Removing a book that was never flushed writes nothing")
+    void removeCartItem_UnflushedItem_ShouldNotWrite() {
+        addBook(1);
+
+        shoppingCartService.removeCartItem(authentication, CART_ITEM_ID);
+        shoppingCartService.flushPending();
+
+        verify(jdbcTemplate, never()).batchUpdate(startsWith(INSERT_ITEM_SQL), anyList());
+        assertEquals(Set.of(), shoppingCartService.getAllCartItems(authentication)
+                .getCartItems());
+    }
+
+    @Test
+    @DisplayName("Removing a book while its insert is being flushed deletes it in the next round")
+    void removeCartItem_InsertInFlight_ShouldDeleteAfterInsert() {
+        when(jdbcTemplate.batchUpdate(startsWith(INSERT_ITEM_SQL), anyList()))
+                .thenAnswer(invocation -> {
+                    shoppingCartService.removeCartItem(authentication, CART_ITEM_ID);
+                    return new int[]{1};
+                });
+        addBook(1);
+
+        shoppingCartService.flushPending();
+        shoppingCartService.flushPending();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith(DELETE_ITEM_SQL), rows.capture());
+        assertEquals(List.of(CART_ID, BOOK_ID), List.of(rows.getValue().get(0)));
+        assertEquals(Set.of(), shoppingCartService.getAllCartItems(authentication)
+                .getCartItems());
+    }
+
+    @Test
+    @DisplayName("Adding a book with a deleted row revives the row under its id")
+    void addItemToCart_DeletedRow_ShouldReuseItsId() {
+        when(cartItemRepository.findDeletedByShoppingCartId(CART_ID))
+                .thenReturn(List.of(deletedCartItem(CART_ITEM_ID - 1, BOOK_ID)));
+        addBook(2);
+
+        ShoppingCartDto actual = shoppingCartService.getAllCartItems(authentication);
+        shoppingCartService.flushPending();
+
+        assertEquals(Set.of(new CartItemResponseDto().setId(CART_ITEM_ID - 1).setBookId(BOOK_ID)
+                .setBookTitle("Book title").setQuantity(2)), actual.getCartItems());
+        verify(jdbcTemplate, never()).batchUpdate(startsWith(INSERT_ITEM_SQL), anyList());
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith(UPDATE_ITEM_SQL), rows.capture());
+        assertEquals(List.of(2, BOOK_PRICE, CART_ID, BOOK_ID), List.of(rows.getValue().get(0)));
+    }
+
+    @Test
+    @DisplayName("Adding a book again after its removal was flushed keeps its id")
+    void addItemToCart_RemovedAndFlushed_ShouldReuseItsId() {
+        when(entityIdAllocator.allocate(CartItem.class, 1))
+                .thenReturn(List.of(CART_ITEM_ID), List.of(CART_ITEM_ID + 1));
+        addBook(1);
+        shoppingCartService.flushPending();
+        shoppingCartService.removeCartItem(authentication, CART_ITEM_ID);
+        shoppingCartService.flushPending();
+
+        addBook(3);
+        shoppingCartService.flushPending();
+
+        assertEquals(Set.of(new CartItemResponseDto().setId(CART_ITEM_ID).setBookId(BOOK_ID)
+                        .setBookTitle("Book title").setQuantity(3)),
+                shoppingCartService.getAllCartItems(authentication).getCartItems());
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith(INSERT_ITEM_SQL), anyList());
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith(UPDATE_ITEM_SQL), rows.capture());
+        assertEquals(List.of(3, BOOK_PRICE, CART_ID, BOOK_ID), List.of(rows.getValue().get(0)));
+    }
+
+    @Test
+    @DisplayName("Updating an unknown cart item throws an exception")
+    void updateBookQuantity_UnknownCartItem_ShouldThrowException() {
+        CartItemQuantityRequestDto requestDto = new CartItemQuantityRequestDto().setQuantity(2);
+
+        assertThrows(EntityNotFoundException.class, () -> shoppingCartService
+                .updateBookQuantity(authentication, CART_ITEM_ID, requestDto));
+    }
+
+    @Test
+    @DisplayName("Batch adds, updates and removes cart items in one call")
+    void updateCart_ValidRequest_ShouldApplyAllChanges() {
+        addBook(1);
+        when(bookRepository.findSummariesByIdIn(Set.of(BOOK_ID, OTHER_BOOK_ID)))
+                .thenReturn(List.of(bookSummary(BOOK_ID, "Book title", BOOK_PRICE),
+                        bookSummary(OTHER_BOOK_ID, "Other title", BOOK_PRICE)));
+        when(entityIdAllocator.allocate(CartItem.class, 2))
+                .thenReturn(List.of(CART_ITEM_ID + 1, CART_ITEM_ID + 2));
+        CartBatchRequestDto requestDto = new CartBatchRequestDto()
+                .setAdd(List.of(new CartItemRequestDto().setBookId(OTHER_BOOK_ID).setQuantity(2),
+                        new CartItemRequestDto().setBookId(BOOK_ID).setQuantity(1)))
+                .setUpdate(Map.of(CART_ITEM_ID, new CartItemQuantityRequestDto().setQuantity(7)));
+
+        ShoppingCartDto actual = shoppingCartService.updateCart(authentication, requestDto);
+
+        assertEquals(Set.of(new CartItemResponseDto().setId(CART_ITEM_ID).setBookId(BOOK_ID)
+                        .setBookTitle("Book title").setQuantity(7),
+                new CartItemResponseDto().setId(CART_ITEM_ID + 1).setBookId(OTHER_BOOK_ID)
+                        .setBookTitle("Other title").setQuantity(2)), actual.getCartItems());
+        assertEquals(2, actual.getItemCount());
+        assertEquals(9, actual.getTotalQuantity());
+        assertEquals(BigDecimal.valueOf(900), actual.getSubtotal());
+    }
+
+    @Test
+    @DisplayName("Batch with an unknown cart item changes nothing")
+    void updateCart_UnknownCartItem_ShouldNotChangeCart() {
+        addBook(1);
+        CartBatchRequestDto requestDto = new CartBatchRequestDto()
+                .setUpdate(Map.of(CART_ITEM_ID, new CartItemQuantityRequestDto().setQuantity(7)))
+                .setRemove(Set.of(CART_ITEM_ID + 1));
+
+        assertThrows(EntityNotFoundException.class,
+                () -> shoppingCartService.updateCart(authentication, requestDto));
+        assertEquals(Set.of(new CartItemResponseDto().setId(CART_ITEM_ID).setBookId(BOOK_ID)
+                .setBookTitle("Book title").setQuantity(1)),
+                shoppingCartService.getAllCartItems(authentication).getCartItems());
+    }
+
+    private BookSummary bookSummary(Long id, String title, BigDecimal price) {
+        return new BookSummary() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public BigDecimal getPrice() {
+                return price;
+            }
+        };
+    }
+
+    private DeletedCartItem deletedCartItem(Long id, Long bookId) {
+        return new DeletedCartItem() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+        };
+    }
+
+    private void addBook(int quantity) {
+        shoppingCartService.addItemToCart(authentication, new CartItemRequestDto()
+                .setBookId(BOOK_ID)
+                .setQuantity(quantity));
+    }
+}
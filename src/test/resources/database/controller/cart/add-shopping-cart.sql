@@ -10,7 +10,7 @@ VALUES (3, 'Book 3', 'Author 3', 'ISBN-908765', 250, 'Description for Book 3', '
 INSERT INTO users (id, email, password, first_name, last_name)
 VALUES (1, 'john@test.com', 'test', 'John', 'Doe');
 
-INSERT INTO shopping_carts (id, user_id, is_deleted)
-VALUES (1, 1, FALSE);
+INSERT INTO shopping_carts (id, user_id, item_count, total_quantity, subtotal, is_deleted)
+VALUES (1, 1, 1, 5, 500, FALSE);
 
-INSERT INTO cart_items (id, shopping_cart_id, book_id, quantity) VALUES (1, 1, 1, 5);
+INSERT INTO cart_items (id, shopping_cart_id, book_id, quantity, price) VALUES (1, 1, 1, 5, 100);
@@ -28,8 +28,8 @@ VALUES (3, 'Book 3', 'Author 3', 'ISBN-908765', 250, 'Description for Book 3', '
 INSERT INTO shopping_carts (id, user_id, is_deleted)
 VALUES (1, 1, FALSE);
 
-INSERT INTO cart_items (shopping_cart_id, book_id, quantity, is_deleted)
-VALUES (1, 1, 1, FALSE);
+INSERT INTO cart_items (shopping_cart_id, book_id, quantity, price, is_deleted)
+VALUES (1, 1, 1, 100, FALSE);
 
 INSERT INTO orders (id, user_id, status, total, order_date, shipping_address, is_deleted)
 VALUES (1, 1, 'NEW', 600, '2023-09-13 00:31:58', 'Kyiv, NewPost110', FALSE);
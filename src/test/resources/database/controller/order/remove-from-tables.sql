@@ -21,3 +21,6 @@ FROM roles;
 
 DELETE
 FROM users;
+
+DELETE
+FROM idempotency_keys;
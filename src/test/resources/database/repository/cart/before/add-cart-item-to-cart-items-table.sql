@@ -1,2 +1,2 @@
-INSERT INTO cart_items (id, shopping_cart_id, book_id, quantity, is_deleted)
-VALUES (1, 1, 1, 5, FALSE);
+INSERT INTO cart_items (id, shopping_cart_id, book_id, quantity, price, is_deleted)
+VALUES (1, 1, 1, 5, 100, FALSE);
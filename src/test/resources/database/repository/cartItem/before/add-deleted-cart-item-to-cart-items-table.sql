@@ -0,0 +1,2 @@
+INSERT INTO cart_items (id, shopping_cart_id, book_id, quantity, price, is_deleted)
+VALUES (2, 1, 2, 3, 200, TRUE);